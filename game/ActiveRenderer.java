@@ -0,0 +1,102 @@
+package game;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.awt.image.VolatileImage;
+
+/**
+ * Backend active rendering: Canvas dengan BufferStrategy dan layer papan di VolatileImage.
+ * Frame digambar langsung saat render() dipanggil (di EDT), tidak menunggu jadwal repaint Swing.
+ */
+public class ActiveRenderer {
+    private static final int BUFFERS = 3; // Triple buffering (AWT turun ke 2 jika tidak didukung)
+
+    private final GamePanel panel;
+    private final Canvas canvas = new Canvas() {
+        // Repaint dari sistem (jendela tertutup / dibuka lagi, dialog ditutup) cukup menggambar satu frame
+        @Override
+        public void paint(Graphics g) {
+            render();
+        }
+
+        @Override
+        public void update(Graphics g) {
+            render(); // Tanpa clear background bawaan AWT agar tidak berkedip
+        }
+    };
+    private VolatileImage boardLayer; // Layer statis di memori video
+    private boolean boardDirty = true; // true jika layer harus dirender ulang
+
+    public ActiveRenderer(GamePanel panel) {
+        this.panel = panel;
+        canvas.setFocusable(false); // Input keyboard tetap ke GamePanel
+    }
+
+    public Canvas getCanvas() {
+        return canvas;
+    }
+
+    // Dipanggil saat tema berubah
+    public void invalidateBoard() {
+        boardDirty = true;
+    }
+
+    /**
+     * Menggambar satu frame ke back buffer lalu menampilkannya.
+     * Diulang jika isi buffer hilang (contentsRestored / contentsLost).
+     */
+    public void render() {
+        if (!canvas.isDisplayable() || canvas.getWidth() <= 0 || canvas.getHeight() <= 0) return;
+        long start = System.nanoTime();
+
+        BufferStrategy strategy = canvas.getBufferStrategy();
+        if (strategy == null) {
+            canvas.createBufferStrategy(BUFFERS);
+            strategy = canvas.getBufferStrategy();
+        }
+
+        do {
+            do {
+                Graphics2D g2d = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    drawBoard(g2d);
+                    panel.renderGame(g2d);
+                } finally {
+                    g2d.dispose();
+                }
+            } while (strategy.contentsRestored()); // Buffer dipulihkan di tengah frame: gambar ulang
+            strategy.show();
+        } while (strategy.contentsLost()); // Buffer hilang setelah show: ulangi frame
+
+        Toolkit.getDefaultToolkit().sync();
+        panel.recordFrame(System.nanoTime() - start);
+    }
+
+    // Blit layer papan dari VolatileImage, render ulang jika permukaan hilang atau tidak kompatibel
+    private void drawBoard(Graphics2D g2d) {
+        int width = canvas.getWidth();
+        int height = canvas.getHeight();
+        GraphicsConfiguration config = canvas.getGraphicsConfiguration();
+        do {
+            if (boardLayer == null || boardLayer.getWidth() != width || boardLayer.getHeight() != height) {
+                boardLayer = canvas.createVolatileImage(width, height);
+                boardDirty = true;
+            }
+            int status = boardLayer.validate(config);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                boardLayer = canvas.createVolatileImage(width, height);
+                boardDirty = true;
+            } else if (status == VolatileImage.IMAGE_RESTORED) {
+                boardDirty = true;
+            }
+
+            if (boardDirty) {
+                Graphics2D layer = boardLayer.createGraphics();
+                panel.paintBoard(layer, width, height);
+                layer.dispose();
+                boardDirty = false;
+            }
+            g2d.drawImage(boardLayer, 0, 0, null);
+        } while (boardLayer.contentsLost());
+    }
+}
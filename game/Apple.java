@@ -1,42 +1,49 @@
 package game;
 
 import java.awt.*;
-import java.util.Random;
+import java.awt.image.BufferedImage;
 
 public class Apple extends Entity implements Drawable {
+    // Warna tiap jenis apel (juga dipakai sebagai warna efek pada kepala ular)
+    public static final Color NORMAL_COLOR = new Color(220, 50, 50); // Red
+    public static final Color GOLDEN_COLOR = new Color(255, 215, 0); // Gold
+    public static final Color SPEED_COLOR = new Color(70, 130, 180); // Blue
+    public static final Color BONUS_COLOR = new Color(50, 180, 50); // Green
+
     private Color color;
-    private Random rand = new Random();
     private int type; // 0 = normal, 1 = golden, 2 = speed, 3 = bonus
     private int effectDuration;
 
+    // Sprite apel yang sedang dipakai
+    private BufferedImage sprite;
+    private long spriteKey;
+    private int spriteGeneration = -1;
+
     // Konstruktor untuk membuat apel dengan warna tertentu
     public Apple(Color color) {
         super(0, 0); // Memanggil konstruktor parent class (Entity)
         this.color = color;
         this.type = 0; // Default ke apel normal
-        spawn(); // Memanggil method spawn untuk posisi awal
     }
 
-    // Method untuk menempatkan apel di posisi random dan menentukan jenisnya
-    public void spawn() {
-        x = 50 + rand.nextInt(20) * 25;
-        y = 50 + rand.nextInt(20) * 25;
-        
-        // Probabilitas jenis apel: 
-        // 70% normal, 10% golden, 10% speed, 10% bonus
-        int chance = rand.nextInt(100);
-        if (chance < 70) {
-            type = 0; // Apel normal (merah)
-            color = new Color(220, 50, 50); // Red
-        } else if (chance < 80) {
-            type = 1; // Apel emas
-            color = new Color(255, 215, 0); // Gold
-        } else if (chance < 90) {
-            type = 2; // Apel biru (speed boost)
-            color = new Color(70, 130, 180); // Blue
+    /**
+     * Method untuk menempatkan apel sesuai state engine dan menentukan warnanya
+     * @param x Posisi x (piksel)
+     * @param y Posisi y (piksel)
+     * @param type Jenis apel
+     */
+    public void place(int x, int y, int type) {
+        this.x = x;
+        this.y = y;
+        this.type = type;
+        if (type == 0) {
+            color = NORMAL_COLOR; // Apel normal (merah)
+        } else if (type == 1) {
+            color = GOLDEN_COLOR; // Apel emas
+        } else if (type == 2) {
+            color = SPEED_COLOR; // Apel biru (speed boost)
         } else {
-            type = 3; // Apel hijau (bonus)
-            color = new Color(50, 180, 50); // Green
+            color = BONUS_COLOR; // Apel hijau (bonus)
         }
     }
 
@@ -55,12 +62,28 @@ public class Apple extends Entity implements Drawable {
         this.color = color;
     }
 
-    // Method untuk menggambar apel
+    // Method untuk menggambar apel (satu drawImage dari SpriteCache)
     @Override
     public void draw(Graphics g) {
-        Graphics2D g2d = (Graphics2D) g;
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        
+        long key = SpriteCache.appleKey(type, color);
+        int generation = SpriteCache.getGeneration();
+        if (sprite == null || key != spriteKey || generation != spriteGeneration) {
+            sprite = SpriteCache.apple(type, color);
+            spriteKey = key;
+            spriteGeneration = generation;
+        }
+        g.drawImage(sprite, x - SpriteCache.PADDING, y - SpriteCache.PADDING, null);
+    }
+
+    /**
+     * Method untuk menggambar bentuk apel (dipakai SpriteCache saat membuat sprite)
+     * @param g2d Graphics context
+     * @param x Posisi x apel
+     * @param y Posisi y apel
+     * @param type Jenis apel
+     * @param color Warna apel
+     */
+    static void paintApple(Graphics2D g2d, int x, int y, int type, Color color) {
         // Menggambar apel dengan gradient untuk efek visual
         GradientPaint gradient = new GradientPaint(
             x, y, color.brighter(),
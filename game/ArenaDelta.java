@@ -0,0 +1,152 @@
+package game;
+
+import java.nio.ByteBuffer;
+
+// Catatan perubahan arena selama satu tick (versi arena dari ChangeSet), untuk dikirim ke klien jaringan.
+// Hanya yang berubah yang dicatat: langkah kepala (sekaligus ekor yang dibuang), ular muncul / mati,
+// apel hilang / muncul, dan skor. Tubuh ular utuh tidak pernah ada di delta; klien mulai dari keyframe.
+// Urutan menerapkan delta di klien: langkah dan ular muncul, ekor dibuang, ular mati, apel hilang, apel baru, skor.
+public class ArenaDelta {
+    public static final int TAIL_DROPPED = 1 << 2; // Bit di byte langkah (2 bit bawah = arah 0=U 1=R 2=D 3=L)
+
+    // Ukuran encode tiap entri (byte)
+    private static final int MOVE_BYTES = 3; // id (short), arah + TAIL_DROPPED (byte)
+    private static final int SPAWN_BYTES = 7; // id (short), sel (int), arah (byte)
+    private static final int DEATH_BYTES = 2; // id (short)
+    private static final int APPLE_BYTES = 4; // sel (int)
+    private static final int SCORE_BYTES = 6; // id (short), skor (int)
+
+    private final int[] moves; // id << 3 | TAIL_DROPPED | arah
+    private final int[] spawnIds, spawnCells, spawnDirections;
+    private final int[] deaths;
+    private final int[] applesRemoved, applesAdded;
+    private final int[] scoreIds, scoreValues;
+    private int moveCount, spawnCount, deathCount, removedCount, addedCount, scoreCount;
+    private boolean full = false; // true jika perubahan tidak tercatat lengkap (klien perlu keyframe)
+
+    /**
+     * @param snakes Jumlah ular di arena (paling banyak 65535, id dikirim sebagai short)
+     */
+    public ArenaDelta(int snakes) {
+        if (snakes > 0xFFFF) throw new IllegalArgumentException("Too many snakes for the wire format: " + snakes);
+        moves = new int[snakes];
+        spawnIds = new int[snakes];
+        spawnCells = new int[snakes];
+        spawnDirections = new int[snakes];
+        deaths = new int[snakes];
+        applesRemoved = new int[snakes + 1]; // Satu per apel dimakan, plus isi ulang di akhir tick
+        applesAdded = new int[snakes + 1];
+        scoreIds = new int[snakes];
+        scoreValues = new int[snakes];
+    }
+
+    // Ular bergerak satu sel; tailDropped = ekornya dibuang (tidak sedang tumbuh)
+    public void addMove(int id, int direction, boolean tailDropped) {
+        if (moveCount == moves.length) {
+            full = true; // Delta tick sebelumnya belum di-clear
+            return;
+        }
+        moves[moveCount++] = id << 3 | (tailDropped ? TAIL_DROPPED : 0) | direction;
+    }
+
+    // Ular muncul (lagi) dengan panjang 1 di sel packed
+    public void addSpawn(int id, int cell, int direction) {
+        if (spawnCount == spawnIds.length) {
+            full = true;
+            return;
+        }
+        spawnIds[spawnCount] = id;
+        spawnCells[spawnCount] = cell;
+        spawnDirections[spawnCount++] = direction;
+    }
+
+    public void addDeath(int id) {
+        if (deathCount == deaths.length) {
+            full = true;
+            return;
+        }
+        deaths[deathCount++] = id;
+    }
+
+    public void addAppleRemoved(int cell) {
+        if (removedCount == applesRemoved.length) {
+            full = true;
+            return;
+        }
+        applesRemoved[removedCount++] = cell;
+    }
+
+    public void addAppleAdded(int cell) {
+        if (addedCount == applesAdded.length) {
+            full = true;
+            return;
+        }
+        applesAdded[addedCount++] = cell;
+    }
+
+    public void addScore(int id, int score) {
+        if (scoreCount == scoreIds.length) {
+            full = true;
+            return;
+        }
+        scoreIds[scoreCount] = id;
+        scoreValues[scoreCount++] = score;
+    }
+
+    // Seluruh state berubah (reset arena), delta tidak cukup
+    public void markFull() {
+        full = true;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    // Ukuran frame hasil encode (termasuk panjang frame)
+    public int encodedSize() {
+        return ArenaProtocol.TICK_HEADER + 6 * 2 + moveCount * MOVE_BYTES + spawnCount * SPAWN_BYTES
+            + deathCount * DEATH_BYTES + (removedCount + addedCount) * APPLE_BYTES + scoreCount * SCORE_BYTES;
+    }
+
+    /**
+     * Method untuk menulis frame DELTA: header tick (ArenaProtocol), lalu enam bagian
+     * yang masing-masing diawali jumlah entri (short)
+     * @param buffer Tujuan, sisa ruang minimal encodedSize()
+     * @param tick Tick arena setelah step
+     * @param timestamp System.nanoTime() saat frame dibuat (untuk latensi broadcast di klien)
+     */
+    public void encode(ByteBuffer buffer, long tick, long timestamp) {
+        int start = ArenaProtocol.beginTickFrame(buffer, ArenaProtocol.DELTA, tick, timestamp);
+        buffer.putShort((short) moveCount);
+        for (int i = 0; i < moveCount; i++) {
+            buffer.putShort((short) (moves[i] >>> 3)).put((byte) (moves[i] & 7));
+        }
+        buffer.putShort((short) spawnCount);
+        for (int i = 0; i < spawnCount; i++) {
+            buffer.putShort((short) spawnIds[i]).putInt(spawnCells[i]).put((byte) spawnDirections[i]);
+        }
+        buffer.putShort((short) deathCount);
+        for (int i = 0; i < deathCount; i++) buffer.putShort((short) deaths[i]);
+        buffer.putShort((short) removedCount);
+        for (int i = 0; i < removedCount; i++) buffer.putInt(applesRemoved[i]);
+        buffer.putShort((short) addedCount);
+        for (int i = 0; i < addedCount; i++) buffer.putInt(applesAdded[i]);
+        buffer.putShort((short) scoreCount);
+        for (int i = 0; i < scoreCount; i++) buffer.putShort((short) scoreIds[i]).putInt(scoreValues[i]);
+        ArenaProtocol.endFrame(buffer, start);
+    }
+
+    public int getSpawnCount() {
+        return spawnCount;
+    }
+
+    public int getSpawnId(int i) {
+        return spawnIds[i];
+    }
+
+    // Dipanggil setelah delta dikirim
+    public void clear() {
+        moveCount = spawnCount = deathCount = removedCount = addedCount = scoreCount = 0;
+        full = false;
+    }
+}
@@ -0,0 +1,267 @@
+package game;
+
+// Simulasi mode arena: banyak ular (ular 0 = pemain, sisanya bot) dan banyak apel di satu papan.
+// Semua ular berbagi satu CellOccupancy, jadi tabrakan kepala-badan dan kepala-kepala
+// cukup dicek dengan satu lookup per kepala, tanpa membandingkan setiap pasangan ular.
+public class ArenaEngine {
+    public static final int PLAYER = 0; // Index ular milik pemain
+    public static final int RESPAWN_TICKS = 10; // Ular yang mati muncul lagi setelah 10 tick
+    public static final int MAX_LENGTH = 256; // Panjang maksimal, buffer dialokasikan di awal (tick tanpa alokasi)
+    private static final int TURN_CHANCE = 16; // Bot berbelok acak dengan peluang 1/16 per tick
+
+    // Arah searah jarum jam: 0=U, 1=R, 2=D, 3=L (belok kanan = +1, belok kiri = +3)
+    private static final char[] DIRECTIONS = {'U', 'R', 'D', 'L'};
+    private static final int[] DX = {0, 1, 0, -1};
+    private static final int[] DY = {-1, 0, 1, 0};
+
+    private final int cols, rows;
+    private final int snakeCount, targetApples;
+    private final GameRandom random;
+    private final CellOccupancy occupancy; // Dibagi semua ular
+
+    // State ular (struct of arrays, index = id ular)
+    private final SnakeBody[] bodies;
+    private final int[] directions;
+    private final int[] targetLengths;
+    private final int[] scores;
+    private final long[] respawnTicks; // Tick ular muncul lagi (hanya berarti jika mati)
+    private final boolean[] alive;
+    private final boolean[] dying; // Ditandai saat cek tabrakan, dibunuh setelah semua ular dicek
+    private final int[] dyingList;
+    private int aliveCount;
+
+    // Apel: daftar padat sel (packed) + peta index sel -> posisi di daftar + 1
+    private final int[] appleCells;
+    private final CellCounts appleIndex;
+    private int appleCount;
+
+    private long tick;
+    private final char[] playerInputs; // Input step(char): hanya slot PLAYER yang diisi
+    private ArenaDelta delta; // null jika perubahan per tick tidak dicatat (tanpa klien jaringan)
+
+    /**
+     * @param cols Jumlah kolom papan
+     * @param rows Jumlah baris papan
+     * @param snakes Jumlah ular (termasuk pemain)
+     * @param apples Jumlah apel yang dijaga di papan
+     * @param seed Seed angka acak (hasil sama untuk seed dan input yang sama)
+     */
+    public ArenaEngine(int cols, int rows, int snakes, int apples, long seed) {
+        this.cols = cols;
+        this.rows = rows;
+        this.snakeCount = snakes;
+        this.targetApples = apples;
+        this.random = new GameRandom(seed);
+        this.occupancy = new CellOccupancy(cols, rows, snakes * MAX_LENGTH);
+
+        bodies = new SnakeBody[snakes];
+        for (int i = 0; i < snakes; i++) bodies[i] = new SnakeBody(occupancy, MAX_LENGTH);
+        directions = new int[snakes];
+        targetLengths = new int[snakes];
+        scores = new int[snakes];
+        respawnTicks = new long[snakes];
+        alive = new boolean[snakes];
+        dying = new boolean[snakes];
+        dyingList = new int[snakes];
+        playerInputs = new char[snakes];
+
+        appleCells = new int[apples];
+        appleIndex = new CellCounts(apples);
+        reset();
+    }
+
+    // Memulai arena baru: semua ular ditempatkan acak, apel diisi penuh
+    public void reset() {
+        tick = 0;
+        aliveCount = 0;
+        for (int i = 0; i < snakeCount; i++) {
+            if (alive[i]) bodies[i].clear();
+            alive[i] = false;
+            scores[i] = 0;
+            spawnSnake(i);
+        }
+        while (appleCount > 0) removeApple(appleCells[0]);
+        for (int i = 0; i < targetApples; i++) spawnApple();
+        if (delta != null) delta.markFull(); // Klien perlu keyframe baru
+    }
+
+    /**
+     * Menjalankan satu tick untuk semua ular.
+     * Urutan: semua ular bergerak, lalu tabrakan dicek, lalu apel dimakan, lalu yang tabrakan mati.
+     * @param playerInput Arah pemain (U/D/L/R), atau 0 agar pemain juga digerakkan bot
+     * @return Event untuk pemain (GameEngine.EVENT_APPLE_EATEN / EVENT_LIFE_LOST)
+     */
+    public int step(char playerInput) {
+        playerInputs[PLAYER] = playerInput;
+        return step(playerInputs);
+    }
+
+    /**
+     * Menjalankan satu tick dengan input per ular (mode multipemain, ArenaServer)
+     * @param inputs Arah tiap ular (U/D/L/R), atau 0 untuk ular yang digerakkan bot
+     * @return Event untuk ular PLAYER
+     */
+    public int step(char[] inputs) {
+        tick++;
+
+        // Gerak: kepala baru ditambahkan dan ekor dibuang untuk setiap ular yang hidup
+        for (int i = 0; i < snakeCount; i++) {
+            if (!alive[i]) {
+                if (tick >= respawnTicks[i]) {
+                    spawnSnake(i);
+                    if (delta != null && alive[i]) delta.addSpawn(i, bodies[i].headCell(), directions[i]);
+                }
+                continue;
+            }
+            int direction = inputs[i] != 0 ? turn(directions[i], inputs[i]) : steer(i);
+            directions[i] = direction;
+            SnakeBody body = bodies[i];
+            int head = body.headCell();
+            body.addHead(SnakeBody.cellX(head) + DX[direction], SnakeBody.cellY(head) + DY[direction]);
+            boolean tailDropped = body.length() > targetLengths[i];
+            if (tailDropped) body.removeTail(); // Panjang target hanya bertambah satu per apel
+            if (delta != null) delta.addMove(i, direction, tailDropped);
+        }
+
+        // Tabrakan: sel kepala yang ditempati lebih dari satu segmen (badan siapa pun atau kepala lain)
+        int dyingCount = 0;
+        for (int i = 0; i < snakeCount; i++) {
+            if (!alive[i]) continue;
+            int head = bodies[i].headCell();
+            int headX = SnakeBody.cellX(head), headY = SnakeBody.cellY(head);
+            if (occupancy.indexOf(headX, headY) < 0 || bodies[i].isHeadColliding()) {
+                dying[i] = true;
+                dyingList[dyingCount++] = i;
+            }
+        }
+
+        int events = 0;
+        // Makan apel (ular yang tabrakan tidak sempat makan)
+        for (int i = 0; i < snakeCount; i++) {
+            if (!alive[i] || dying[i]) continue;
+            int head = bodies[i].headCell();
+            if (appleIndex.get(occupancy.indexOf(SnakeBody.cellX(head), SnakeBody.cellY(head))) == 0) continue;
+            removeApple(head);
+            targetLengths[i] = Math.min(MAX_LENGTH, targetLengths[i] + 1);
+            scores[i] += 10;
+            if (delta != null) delta.addScore(i, scores[i]);
+            spawnApple();
+            if (i == PLAYER) events |= GameEngine.EVENT_APPLE_EATEN;
+        }
+
+        // Ular yang tabrakan dibuang dari papan setelah semua ular dicek
+        for (int d = 0; d < dyingCount; d++) {
+            int i = dyingList[d];
+            dying[i] = false;
+            alive[i] = false;
+            aliveCount--;
+            bodies[i].clear();
+            respawnTicks[i] = tick + RESPAWN_TICKS;
+            if (delta != null) delta.addDeath(i);
+            if (i == PLAYER) events |= GameEngine.EVENT_LIFE_LOST;
+        }
+
+        // Apel yang gagal muncul saat papan penuh diisi lagi sedikit demi sedikit
+        if (appleCount < targetApples) spawnApple();
+        return events;
+    }
+
+    // Arah pemain: berbalik 180 derajat diabaikan
+    private static int turn(int direction, char input) {
+        for (int d = 0; d < 4; d++) {
+            if (DIRECTIONS[d] == input) return d == ((direction + 2) & 3) ? direction : d;
+        }
+        return direction;
+    }
+
+    // Arah bot: ambil apel di depan/kiri/kanan, kadang belok acak, hindari sel terisi atau tepi papan
+    private int steer(int i) {
+        int direction = directions[i];
+        int head = bodies[i].headCell();
+        int headX = SnakeBody.cellX(head), headY = SnakeBody.cellY(head);
+
+        for (int t = 0; t < 3; t++) {
+            int d = (direction + (t == 0 ? 0 : t == 1 ? 3 : 1)) & 3;
+            if (hasApple(headX + DX[d], headY + DY[d])) return d;
+        }
+        if (random.nextInt(TURN_CHANCE) == 0) direction = (direction + (random.nextInt(2) == 0 ? 1 : 3)) & 3;
+        for (int t = 0; t < 3; t++) {
+            int d = (direction + (t == 0 ? 0 : t == 1 ? 1 : 3)) & 3;
+            int x = headX + DX[d], y = headY + DY[d];
+            if (occupancy.indexOf(x, y) >= 0 && occupancy.count(x, y) == 0) return d;
+        }
+        return direction; // Terjebak
+    }
+
+    // Menempatkan ular (panjang 1, arah acak) di sel kosong; dicoba lagi tick berikutnya jika papan penuh
+    private void spawnSnake(int i) {
+        int cell = occupancy.randomFreeCell(random);
+        if (cell < 0) {
+            respawnTicks[i] = tick + 1;
+            return;
+        }
+        bodies[i].addHead(SnakeBody.cellX(cell), SnakeBody.cellY(cell));
+        directions[i] = random.nextInt(4);
+        targetLengths[i] = 1;
+        alive[i] = true;
+        aliveCount++;
+    }
+
+    // Menambah satu apel di sel yang tidak ditempati ular maupun apel lain
+    private void spawnApple() {
+        if (appleCount >= targetApples) return;
+        if (appleCount + occupancy.occupiedCells() >= cols * rows) return; // Tidak ada sel kosong lagi
+        while (true) {
+            int cell = occupancy.randomFreeCell(random);
+            if (cell < 0) return;
+            int index = occupancy.indexOf(SnakeBody.cellX(cell), SnakeBody.cellY(cell));
+            if (appleIndex.get(index) != 0) continue;
+            appleCells[appleCount] = cell;
+            appleIndex.set(index, ++appleCount);
+            if (delta != null) delta.addAppleAdded(cell);
+            return;
+        }
+    }
+
+    // Menghapus apel di sel (packed); tempatnya di daftar diisi apel terakhir
+    private void removeApple(int cell) {
+        int index = occupancy.indexOf(SnakeBody.cellX(cell), SnakeBody.cellY(cell));
+        int slot = appleIndex.get(index) - 1;
+        appleIndex.set(index, 0);
+        if (delta != null) delta.addAppleRemoved(cell);
+        int last = appleCells[--appleCount];
+        if (slot != appleCount) {
+            appleCells[slot] = last;
+            appleIndex.set(occupancy.indexOf(SnakeBody.cellX(last), SnakeBody.cellY(last)), slot + 1);
+        }
+    }
+
+    // Cek apakah ada apel di sel
+    public boolean hasApple(int cellX, int cellY) {
+        int index = occupancy.indexOf(cellX, cellY);
+        return index >= 0 && appleIndex.get(index) != 0;
+    }
+
+    /**
+     * Method untuk mulai mencatat perubahan per tick (dibaca dan di-clear pemakai setelah setiap step)
+     * @param delta Pencatat dengan ukuran jumlah ular arena ini, atau null untuk berhenti
+     */
+    public void setDelta(ArenaDelta delta) {
+        this.delta = delta;
+    }
+
+    // Getters
+    public int getCols() { return cols; }
+    public int getRows() { return rows; }
+    public int getSnakeCount() { return snakeCount; }
+    public int getAliveCount() { return aliveCount; }
+    public SnakeBody getBody(int i) { return bodies[i]; }
+    public boolean isAlive(int i) { return alive[i]; }
+    public char getDirection(int i) { return DIRECTIONS[directions[i]]; }
+    public int getScore(int i) { return scores[i]; }
+    public int getAppleCount() { return appleCount; }
+    public int getAppleCell(int i) { return appleCells[i]; }
+    public long getTick() { return tick; }
+    public CellOccupancy getOccupancy() { return occupancy; }
+    public ArenaDelta getDelta() { return delta; }
+}
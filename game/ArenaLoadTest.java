@@ -0,0 +1,307 @@
+package game;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Generator beban untuk ArenaServer: ribuan koneksi TCP di satu thread dan satu Selector.
+ * Tiap koneksi hanya menyimpan header frame (isi frame dilewati tanpa disalin), jadi 5000 koneksi
+ * cukup dengan beberapa ratus KB. Latensi broadcast = System.nanoTime() saat frame DELTA selesai diterima
+ * dikurangi waktu frame dibuat di server (harus di mesin yang sama). Koneksi yang mendapat ular
+ * sesekali mengirim belokan acak. Persentil dihitung dari histogram log-linear (Tournament.Stats.bucket)
+ * setelah semua koneksi tersambung dan masa pemanasan lewat.
+ * Tanpa --connect, server dijalankan di proses ini (thread sendiri) pada port bebas.
+ * --spectate menyambung ke SpectatorHub; --slow n membuat n koneksi pertama membaca sedikit demi sedikit
+ * (buffer terima kecil) supaya terlihat apakah hub melompatkan mereka ke keyframe, bukan menumpuk antrian.
+ *
+ * Contoh: java -cp out game.ArenaLoadTest --connections 5000 --seconds 20 --snakes 1000
+ *         java -cp out game.ArenaLoadTest --spectate --connections 5000 --slow 100
+ */
+public class ArenaLoadTest {
+    private static final int CONNECT_BATCH = 256; // Koneksi baru per putaran selector
+    private static final long WARMUP_NANOS = 2_000_000_000L; // Keyframe awal tidak ikut diukur
+    private static final long SLOW_PERIOD_NANOS = 250_000_000L; // Pembaca lambat membaca 4x per detik
+    private static final int SLOW_READ_BYTES = 8192; // ... masing-masing sebanyak ini
+    private static final int SLOW_RECEIVE_BUFFER = 8192;
+
+    private final InetSocketAddress address;
+    private final int connections;
+    private final int inputChance; // Belok acak dengan peluang 1/inputChance per delta
+    private final int slow; // Jumlah pembaca lambat (koneksi pertama)
+    private final List<Connection> slowConnections = new ArrayList<>();
+    private final Selector selector;
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(256 * 1024); // Dipakai semua koneksi
+    private final GameRandom random = new GameRandom(1);
+    private final long[] histogram = new long[Tournament.Stats.bucket(Integer.MAX_VALUE) + 1]; // Mikrodetik
+    private long deltas, keyframes, bytes, inputsSent;
+    private long slowDeltas, slowKeyframes; // Pembaca lambat tidak ikut histogram latensi
+    private int opened, connected, players, closed;
+
+    // Parser frame satu koneksi: header ditampung sampai lengkap, sisa frame dilewati
+    private static class Connection {
+        final SocketChannel channel;
+        final boolean slow;
+        final ByteBuffer header = ByteBuffer.allocate(ArenaProtocol.TICK_HEADER);
+        final ByteBuffer out = ByteBuffer.allocate(ArenaProtocol.INPUT_SIZE * 2);
+        int headerSize; // Byte header yang disimpan untuk frame ini
+        int skip; // Sisa isi frame yang dilewati
+        int snake = -1;
+        char direction = 'R'; // Belokan terakhir yang dikirim
+
+        Connection(SocketChannel channel, boolean slow) {
+            this.channel = channel;
+            this.slow = slow;
+        }
+    }
+
+    public ArenaLoadTest(InetSocketAddress address, int connections, int inputChance, int slow) throws IOException {
+        this.address = address;
+        this.connections = connections;
+        this.inputChance = inputChance;
+        this.slow = slow;
+        this.selector = Selector.open();
+    }
+
+    /**
+     * Method untuk menjalankan beban selama durasi tertentu lalu mencetak hasil
+     * @param seconds Durasi pengukuran setelah semua koneksi tersambung dan pemanasan
+     */
+    public void run(int seconds) throws IOException {
+        long start = System.nanoTime();
+        long measureStart = Long.MAX_VALUE, end = Long.MAX_VALUE;
+        long measuredBytes = 0;
+        long nextSlowRead = start;
+        while (System.nanoTime() < end) {
+            for (int i = 0; i < CONNECT_BATCH && opened < connections; i++) open();
+            selector.select(100);
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                Connection connection = (Connection) key.attachment();
+                try {
+                    if (key.isConnectable()) {
+                        connection.channel.finishConnect();
+                        key.interestOps(connection.slow ? 0 : SelectionKey.OP_READ);
+                        connected++;
+                    } else if (key.isReadable()) {
+                        read(connection, readBuffer.capacity());
+                    }
+                } catch (IOException e) {
+                    close(connection);
+                }
+            }
+
+            long now = System.nanoTime();
+            if (now >= nextSlowRead) {
+                for (int i = slowConnections.size() - 1; i >= 0; i--) {
+                    Connection connection = slowConnections.get(i);
+                    try {
+                        if (connection.channel.isConnected()) read(connection, SLOW_READ_BYTES);
+                    } catch (IOException e) {
+                        close(connection);
+                    }
+                }
+                nextSlowRead = now + SLOW_PERIOD_NANOS;
+            }
+            if (measureStart == Long.MAX_VALUE && connected + closed == connections) {
+                System.out.printf(Locale.ROOT, "%d connections established in %.1f s (%d failed)%n",
+                    connected, (now - start) / 1e9, closed);
+                measureStart = now + WARMUP_NANOS;
+                end = measureStart + seconds * 1_000_000_000L;
+            }
+            if (deltas > 0 && now < measureStart) { // Masih pemanasan: hasil sejauh ini dibuang
+                Arrays.fill(histogram, 0);
+                deltas = keyframes = inputsSent = slowDeltas = slowKeyframes = 0;
+                measuredBytes = bytes;
+            }
+        }
+        printSummary((System.nanoTime() - measureStart) / 1e9, bytes - measuredBytes);
+        for (SelectionKey key : selector.keys()) key.channel().close();
+        selector.close();
+    }
+
+    private void open() throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        Connection connection = new Connection(channel, opened < slow);
+        if (connection.slow) {
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, SLOW_RECEIVE_BUFFER);
+            slowConnections.add(connection);
+        }
+        opened++;
+        if (channel.connect(address)) {
+            channel.register(selector, connection.slow ? 0 : SelectionKey.OP_READ, connection);
+            connected++;
+        } else {
+            channel.register(selector, SelectionKey.OP_CONNECT, connection);
+        }
+    }
+
+    private void close(Connection connection) throws IOException {
+        connection.channel.close(); // Kunci selector ikut dibatalkan
+        slowConnections.remove(connection);
+        closed++;
+    }
+
+    // Membaca paling banyak limit byte dari satu koneksi lalu memproses frame yang selesai
+    private void read(Connection connection, int limit) throws IOException {
+        readBuffer.clear().limit(limit);
+        int read = connection.channel.read(readBuffer);
+        if (read < 0) throw new IOException("Server closed the connection");
+        bytes += read;
+        readBuffer.flip();
+        ByteBuffer header = connection.header;
+        while (readBuffer.hasRemaining()) {
+            if (connection.skip > 0) {
+                int n = Math.min(connection.skip, readBuffer.remaining());
+                readBuffer.position(readBuffer.position() + n);
+                connection.skip -= n;
+                if (connection.skip == 0) finishFrame(connection);
+                continue;
+            }
+            int want = header.position() < ArenaProtocol.LENGTH_BYTES + 1
+                ? ArenaProtocol.LENGTH_BYTES + 1 : connection.headerSize;
+            int n = Math.min(want - header.position(), readBuffer.remaining());
+            header.put(header.position(), readBuffer, readBuffer.position(), n);
+            header.position(header.position() + n);
+            readBuffer.position(readBuffer.position() + n);
+            if (header.position() == ArenaProtocol.LENGTH_BYTES + 1) {
+                int length = header.getInt(0);
+                if (length < 1 || length > ArenaProtocol.MAX_FRAME) throw new IOException("Bad frame length " + length);
+                byte type = header.get(ArenaProtocol.LENGTH_BYTES);
+                int size = type == ArenaProtocol.WELCOME ? ArenaProtocol.WELCOME_SIZE : ArenaProtocol.TICK_HEADER;
+                connection.headerSize = Math.min(size, ArenaProtocol.LENGTH_BYTES + length);
+            }
+            if (header.position() > ArenaProtocol.LENGTH_BYTES && header.position() == connection.headerSize) {
+                connection.skip = ArenaProtocol.LENGTH_BYTES + header.getInt(0) - connection.headerSize;
+                if (connection.skip == 0) finishFrame(connection);
+            }
+        }
+    }
+
+    // Satu frame selesai diterima
+    private void finishFrame(Connection connection) throws IOException {
+        ByteBuffer header = connection.header;
+        byte type = header.get(ArenaProtocol.LENGTH_BYTES);
+        if (type == ArenaProtocol.WELCOME) {
+            connection.snake = header.getInt(ArenaProtocol.LENGTH_BYTES + 1);
+            if (connection.snake >= 0) players++;
+        } else if (connection.slow) {
+            if (type == ArenaProtocol.KEYFRAME) slowKeyframes++;
+            else slowDeltas++;
+        } else if (type == ArenaProtocol.KEYFRAME) {
+            keyframes++;
+        } else if (type == ArenaProtocol.DELTA) {
+            long latency = System.nanoTime() - header.getLong(ArenaProtocol.LENGTH_BYTES + 1 + 8);
+            histogram[Tournament.Stats.bucket((int) Math.min(Integer.MAX_VALUE, Math.max(0, latency / 1000)))]++;
+            deltas++;
+            if (connection.snake >= 0 && random.nextInt(inputChance) == 0) sendTurn(connection);
+        }
+        header.clear();
+    }
+
+    // Belok kiri atau kanan dari belokan terakhir; sisa tulisan sebagian dikirim dulu
+    private void sendTurn(Connection connection) throws IOException {
+        ByteBuffer out = connection.out;
+        if (out.position() == 0) {
+            int index = Replay.directionIndex(connection.direction);
+            connection.direction = "URDL".charAt((index + (random.nextInt(2) == 0 ? 1 : 3)) & 3);
+            ArenaProtocol.writeInput(out, connection.direction);
+            inputsSent++;
+        }
+        out.flip();
+        connection.channel.write(out);
+        out.compact();
+    }
+
+    // Persentil latensi dari histogram (batas bawah bucket, galat relatif paling banyak 1/16)
+    private double percentileMillis(double percentile) {
+        long rank = (long) Math.ceil(percentile / 100 * deltas), seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= rank && seen > 0) return Tournament.Stats.bucketFloor(i) / 1000.0;
+        }
+        return 0;
+    }
+
+    private void printSummary(double seconds, long measuredBytes) {
+        System.out.printf(Locale.ROOT, "%d connections (%d players, %d closed), %.1f s measured%n",
+            connected - closed, players, closed, seconds);
+        System.out.printf(Locale.ROOT, "received %,d deltas (%,.0f/s), %d keyframes, %.1f MB/s; sent %,d inputs%n",
+            deltas, deltas / seconds, keyframes, measuredBytes / seconds / 1e6, inputsSent);
+        if (slow > 0) {
+            System.out.printf(Locale.ROOT, "slow readers: %d connections received %,d deltas and %d keyframes%n",
+                slowConnections.size(), slowDeltas, slowKeyframes);
+        }
+        if (deltas == 0) return;
+        System.out.printf(Locale.ROOT, "broadcast latency ms: p50 %.2f  p90 %.2f  p99 %.2f  p99.9 %.2f  max %.2f%n",
+            percentileMillis(50), percentileMillis(90), percentileMillis(99), percentileMillis(99.9),
+            percentileMillis(100));
+    }
+
+    public static void main(String[] args) throws Exception {
+        int connections = 5000, seconds = 20, inputChance = 8, slow = 0;
+        int size = 512, snakes = 1000, apples = -1, tickMillis = 100;
+        int keyframeInterval = SpectatorHub.DEFAULT_KEYFRAME_INTERVAL;
+        boolean spectate = false;
+        String connect = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--connections" -> connections = Integer.parseInt(args[++i]);
+                case "--seconds" -> seconds = Integer.parseInt(args[++i]);
+                case "--input-chance" -> inputChance = Integer.parseInt(args[++i]);
+                case "--board" -> size = Integer.parseInt(args[++i]);
+                case "--snakes" -> snakes = Integer.parseInt(args[++i]);
+                case "--apples" -> apples = Integer.parseInt(args[++i]);
+                case "--tick" -> tickMillis = Integer.parseInt(args[++i]);
+                case "--connect" -> connect = args[++i];
+                case "--spectate" -> spectate = true;
+                case "--slow" -> slow = Integer.parseInt(args[++i]);
+                case "--keyframe-interval" -> keyframeInterval = Integer.parseInt(args[++i]);
+                default -> {
+                    System.err.println("Usage: ArenaLoadTest [--connections n] [--seconds n] [--input-chance n]"
+                        + " [--board n] [--snakes n] [--apples n] [--tick ms] [--connect host:port]"
+                        + " [--spectate] [--slow n] [--keyframe-interval ticks]");
+                    System.exit(2);
+                }
+            }
+        }
+
+        ArenaServer server = null;
+        SpectatorHub hub = null;
+        InetSocketAddress address;
+        if (connect != null) {
+            int colon = connect.lastIndexOf(':');
+            address = new InetSocketAddress(connect.substring(0, colon), Integer.parseInt(connect.substring(colon + 1)));
+        } else {
+            ArenaEngine engine = new ArenaEngine(size, size, snakes, apples < 0 ? snakes * 10 : apples, 1);
+            server = new ArenaServer(engine, 0, tickMillis);
+            if (spectate) {
+                hub = new SpectatorHub(0, keyframeInterval);
+                server.setSpectators(hub);
+                Thread thread = new Thread(hub, "spectator-hub");
+                thread.setDaemon(true);
+                thread.start();
+            }
+            Thread thread = new Thread(server, "arena-server");
+            thread.setDaemon(true);
+            thread.start();
+            address = new InetSocketAddress("127.0.0.1", spectate ? hub.getPort() : server.getPort());
+        }
+        new ArenaLoadTest(address, connections, inputChance, slow).run(seconds);
+        if (server != null) server.close();
+        if (hub != null) hub.close();
+    }
+}
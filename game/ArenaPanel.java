@@ -0,0 +1,205 @@
+package game;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.image.BufferedImage;
+
+// Tampilan mode arena (-Dsnake.arena=jumlah ular): pemain melawan banyak bot di papan besar.
+// Hanya sel di dalam viewport kamera yang digambar, berapa pun jumlah ular dan apelnya.
+public class ArenaPanel extends JPanel implements ActionListener {
+    private static final long serialVersionUID = 1L;
+    private static final int VIEW_CELLS = 20; // Viewport 20x20 sel, sama dengan mode biasa
+    private static final int TICK_DELAY = 100; // Delay antar tick (ms)
+
+    private static final Font HUD_FONT = new Font("Courier", Font.BOLD, 16);
+    private static final Font PAUSE_FONT = new Font("Courier", Font.BOLD, 48);
+    private static final Color BG_COLOR = new Color(240, 240, 240);
+    private static final Color PANEL_COLOR = new Color(250, 250, 250);
+    private static final Color BORDER_COLOR = new Color(200, 200, 200);
+    private static final Color GRID_COLOR = new Color(230, 230, 230);
+    private static final Color TEXT_COLOR = new Color(60, 60, 60);
+    private static final Color PLAYER_COLOR = new Color(50, 120, 50);
+    private static final Color BOT_COLOR = new Color(120, 120, 170);
+    private static final Color PAUSE_OVERLAY_COLOR = new Color(0, 0, 0, 150);
+    private static final BasicStroke BORDER_STROKE = new BasicStroke(3);
+    private static final BasicStroke GRID_STROKE = new BasicStroke(1);
+    private static final BasicStroke HUD_STROKE = new BasicStroke(2);
+
+    private final ArenaEngine engine;
+    private final Camera camera;
+    private final InputQueue inputs = new InputQueue();
+    private final Timer timer = new Timer(TICK_DELAY, this);
+    private boolean isPaused = false;
+
+    private long tickNanos; // Total waktu step() sejak statistik terakhir
+    private int tickCount;
+    private double averageTickMicros; // Ditampilkan di HUD, diperbarui tiap 10 tick
+
+    public ArenaPanel(int snakes, int apples) {
+        setPreferredSize(new Dimension(600, 650));
+        setBackground(BG_COLOR);
+        setFocusable(true);
+        addKeyListener(new KeyHandler());
+
+        int cols = GamePanel.boardSize(0, 512);
+        int rows = GamePanel.boardSize(1, 512);
+        engine = new ArenaEngine(cols, rows, snakes, apples, System.nanoTime());
+        camera = new Camera(cols, rows, VIEW_CELLS, VIEW_CELLS);
+        followPlayer();
+        inputs.reset(engine.getDirection(ArenaEngine.PLAYER));
+        timer.start();
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        if (isPaused) return;
+        boolean wasAlive = engine.isAlive(ArenaEngine.PLAYER);
+
+        long start = System.nanoTime();
+        engine.step(inputs.poll(engine.getDirection(ArenaEngine.PLAYER)));
+        tickNanos += System.nanoTime() - start;
+        if (++tickCount == 10) {
+            averageTickMicros = tickNanos / 1000.0 / tickCount;
+            tickNanos = 0;
+            tickCount = 0;
+        }
+
+        // Pemain muncul lagi dengan arah acak: antrian input mengikuti arah baru
+        if (!wasAlive && engine.isAlive(ArenaEngine.PLAYER)) inputs.reset(engine.getDirection(ArenaEngine.PLAYER));
+        followPlayer();
+        repaint();
+    }
+
+    // Kamera mengikuti kepala pemain (tetap di tempat selama pemain mati)
+    private void followPlayer() {
+        if (!engine.isAlive(ArenaEngine.PLAYER)) return;
+        int head = engine.getBody(ArenaEngine.PLAYER).headCell();
+        camera.follow(SnakeBody.cellX(head), SnakeBody.cellY(head));
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g;
+        int arenaSize = VIEW_CELLS * Snake.CELL_SIZE;
+        int offset = Snake.BOARD_OFFSET;
+
+        // Arena dan grid
+        g2d.setColor(PANEL_COLOR);
+        g2d.fillRect(offset, offset, arenaSize, arenaSize);
+        g2d.setColor(GRID_COLOR);
+        g2d.setStroke(GRID_STROKE);
+        for (int i = 0; i <= arenaSize; i += Snake.CELL_SIZE) {
+            g2d.drawLine(offset + i, offset, offset + i, offset + arenaSize);
+            g2d.drawLine(offset, offset + i, offset + arenaSize, offset + i);
+        }
+
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        Graphics2D world = (Graphics2D) g2d.create();
+        world.clipRect(offset, offset, arenaSize, arenaSize);
+        world.translate(-camera.getX() * Snake.CELL_SIZE, -camera.getY() * Snake.CELL_SIZE);
+        drawWorld(world);
+        world.dispose();
+
+        g2d.setColor(BORDER_COLOR);
+        g2d.setStroke(BORDER_STROKE);
+        g2d.drawRoundRect(offset, offset, arenaSize, arenaSize, 10, 10);
+        drawHud(g2d);
+
+        if (isPaused) {
+            g2d.setColor(PAUSE_OVERLAY_COLOR);
+            g2d.fillRoundRect(offset, offset, arenaSize, arenaSize, 10, 10);
+            g2d.setColor(Color.WHITE);
+            g2d.setFont(PAUSE_FONT);
+            int textWidth = g2d.getFontMetrics().stringWidth("PAUSED");
+            g2d.drawString("PAUSED", 300 - textWidth / 2, 300);
+        }
+    }
+
+    /**
+     * Method untuk menggambar isi viewport.
+     * Apel dan badan ular dicari per sel viewport (lewat okupansi), kepala bot lewat daftar ular,
+     * jadi biaya gambar mengikuti ukuran viewport dan jumlah ular, bukan luas papan.
+     * @param g Graphics context yang sudah digeser sesuai kamera
+     */
+    private void drawWorld(Graphics2D g) {
+        BufferedImage appleSprite = SpriteCache.apple(GameEngine.APPLE_NORMAL, Apple.NORMAL_COLOR);
+        BufferedImage botBody = SpriteCache.snakeSegment(BOT_COLOR, null, false, 'R');
+        CellOccupancy occupancy = engine.getOccupancy();
+
+        int endX = Math.min(camera.getX() + VIEW_CELLS, engine.getCols());
+        int endY = Math.min(camera.getY() + VIEW_CELLS, engine.getRows());
+        for (int cy = camera.getY(); cy < endY; cy++) {
+            for (int cx = camera.getX(); cx < endX; cx++) {
+                int px = Snake.toPixel(cx) - SpriteCache.PADDING;
+                int py = Snake.toPixel(cy) - SpriteCache.PADDING;
+                if (engine.hasApple(cx, cy)) g.drawImage(appleSprite, px, py, null);
+                if (occupancy.count(cx, cy) > 0) g.drawImage(botBody, px, py, null);
+            }
+        }
+
+        // Kepala bot di dalam viewport
+        for (int i = 1; i < engine.getSnakeCount(); i++) {
+            if (!engine.isAlive(i)) continue;
+            int head = engine.getBody(i).headCell();
+            if (!camera.isVisible(SnakeBody.cellX(head), SnakeBody.cellY(head))) continue;
+            drawSegment(g, SpriteCache.snakeSegment(BOT_COLOR, null, true, engine.getDirection(i)), head);
+        }
+
+        // Ular pemain digambar terakhir dengan warnanya sendiri
+        if (engine.isAlive(ArenaEngine.PLAYER)) {
+            SnakeBody body = engine.getBody(ArenaEngine.PLAYER);
+            char direction = engine.getDirection(ArenaEngine.PLAYER);
+            BufferedImage playerBody = SpriteCache.snakeSegment(PLAYER_COLOR, null, false, direction);
+            for (int i = body.length() - 1; i >= 0; i--) {
+                int cell = body.get(i);
+                if (!camera.isVisible(SnakeBody.cellX(cell), SnakeBody.cellY(cell))) continue;
+                drawSegment(g, i == 0 ? SpriteCache.snakeSegment(PLAYER_COLOR, null, true, direction) : playerBody, cell);
+            }
+        }
+    }
+
+    private static void drawSegment(Graphics2D g, BufferedImage sprite, int cell) {
+        g.drawImage(sprite, Snake.toPixel(SnakeBody.cellX(cell)) - SpriteCache.PADDING,
+            Snake.toPixel(SnakeBody.cellY(cell)) - SpriteCache.PADDING, null);
+    }
+
+    // Panel info di bawah arena
+    private void drawHud(Graphics2D g2d) {
+        g2d.setColor(PANEL_COLOR);
+        g2d.fillRect(0, 560, getWidth(), 90);
+        g2d.setColor(BORDER_COLOR);
+        g2d.setStroke(HUD_STROKE);
+        g2d.drawLine(0, 560, getWidth(), 560);
+
+        g2d.setFont(HUD_FONT);
+        g2d.setColor(TEXT_COLOR);
+        String status = engine.isAlive(ArenaEngine.PLAYER) ? "" : " (respawning)";
+        g2d.drawString("Score: " + engine.getScore(ArenaEngine.PLAYER) + status, 60, 585);
+        g2d.drawString("Alive: " + engine.getAliveCount() + "/" + engine.getSnakeCount(), 60, 610);
+        g2d.drawString("Apples: " + engine.getAppleCount(), 60, 635);
+
+        String board = "Board: " + engine.getCols() + "x" + engine.getRows();
+        String tick = String.format("Tick: %.0f us", averageTickMicros);
+        g2d.drawString(board, getWidth() - g2d.getFontMetrics().stringWidth(board) - 60, 585);
+        g2d.drawString(tick, getWidth() - g2d.getFontMetrics().stringWidth(tick) - 60, 610);
+    }
+
+    // Kelas untuk menangani input keyboard
+    private class KeyHandler extends KeyAdapter {
+        @Override
+        public void keyPressed(KeyEvent e) {
+            switch (e.getKeyCode()) {
+                case KeyEvent.VK_LEFT -> inputs.offer('L');
+                case KeyEvent.VK_RIGHT -> inputs.offer('R');
+                case KeyEvent.VK_UP -> inputs.offer('U');
+                case KeyEvent.VK_DOWN -> inputs.offer('D');
+                case KeyEvent.VK_ESCAPE -> { // Pause / lanjut
+                    isPaused = !isPaused;
+                    repaint();
+                }
+            }
+        }
+    }
+}
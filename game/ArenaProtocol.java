@@ -0,0 +1,73 @@
+package game;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Format pesan jaringan mode arena multipemain (ArenaServer dan ArenaLoadTest).
+ * Setiap frame: panjang isi (int, tanpa 4 byte panjang itu sendiri), tipe (byte), lalu isi.
+ * Frame KEYFRAME dan DELTA diawali tick (long) dan waktu frame dibuat (long, System.nanoTime server),
+ * jadi klien di mesin yang sama bisa mengukur latensi broadcast (nanoTime Linux memakai jam monotonic sistem).
+ * Klien baru menerima WELCOME dan KEYFRAME, setelah itu hanya DELTA per tick (lihat ArenaDelta).
+ */
+public class ArenaProtocol {
+    public static final byte WELCOME = 1; // server -> klien: id ular milik klien (int, -1 = penonton)
+    public static final byte KEYFRAME = 2; // server -> klien: seluruh state arena
+    public static final byte DELTA = 3; // server -> klien: perubahan satu tick
+    public static final byte INPUT = 4; // klien -> server: arah (byte U/D/L/R)
+
+    public static final int LENGTH_BYTES = 4;
+    public static final int TICK_HEADER = LENGTH_BYTES + 1 + 8 + 8; // Panjang, tipe, tick, waktu
+    public static final int WELCOME_SIZE = LENGTH_BYTES + 1 + 4;
+    public static final int INPUT_SIZE = LENGTH_BYTES + 1 + 1;
+    public static final int MAX_FRAME = 1 << 24; // Frame lebih besar dianggap rusak
+
+    // Memulai frame tick; panjangnya diisi endFrame
+    static int beginTickFrame(ByteBuffer buffer, byte type, long tick, long timestamp) {
+        int start = buffer.position();
+        buffer.putInt(0).put(type).putLong(tick).putLong(timestamp);
+        return start;
+    }
+
+    static void endFrame(ByteBuffer buffer, int start) {
+        buffer.putInt(start, buffer.position() - start - LENGTH_BYTES);
+    }
+
+    // Ukuran frame keyframe untuk state arena saat ini
+    public static int keyframeSize(ArenaEngine engine) {
+        int size = TICK_HEADER + 4 * 4;
+        for (int i = 0; i < engine.getSnakeCount(); i++) size += 1 + 1 + 4 + 2 + engine.getBody(i).length() * 4;
+        return size + engine.getAppleCount() * 4;
+    }
+
+    /**
+     * Method untuk menulis seluruh state arena untuk klien yang baru bergabung
+     * Isi: kolom, baris, jumlah ular, jumlah apel; per ular hidup (byte), arah (byte 0-3), skor (int),
+     * panjang (short), sel dari kepala ke ekor (int); lalu sel semua apel (int)
+     * @param engine Arena (panggil di thread pemilik engine)
+     * @param buffer Tujuan, sisa ruang minimal keyframeSize()
+     * @param timestamp System.nanoTime() saat frame dibuat
+     */
+    public static void writeKeyframe(ArenaEngine engine, ByteBuffer buffer, long timestamp) {
+        int start = beginTickFrame(buffer, KEYFRAME, engine.getTick(), timestamp);
+        buffer.putInt(engine.getCols()).putInt(engine.getRows())
+            .putInt(engine.getSnakeCount()).putInt(engine.getAppleCount());
+        for (int i = 0; i < engine.getSnakeCount(); i++) {
+            SnakeBody body = engine.getBody(i);
+            buffer.put((byte) (engine.isAlive(i) ? 1 : 0))
+                .put((byte) Replay.directionIndex(engine.getDirection(i)))
+                .putInt(engine.getScore(i))
+                .putShort((short) body.length());
+            for (int s = 0; s < body.length(); s++) buffer.putInt(body.get(s));
+        }
+        for (int a = 0; a < engine.getAppleCount(); a++) buffer.putInt(engine.getAppleCell(a));
+        endFrame(buffer, start);
+    }
+
+    public static void writeWelcome(ByteBuffer buffer, int snake) {
+        buffer.putInt(WELCOME_SIZE - LENGTH_BYTES).put(WELCOME).putInt(snake);
+    }
+
+    public static void writeInput(ByteBuffer buffer, char direction) {
+        buffer.putInt(INPUT_SIZE - LENGTH_BYTES).put(INPUT).put((byte) direction);
+    }
+}
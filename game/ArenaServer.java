@@ -0,0 +1,365 @@
+package game;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Server arena multipemain: satu thread, satu Selector NIO non-blocking, ArenaEngine sebagai state otoritatif.
+ * Klien yang tersambung mendapat ular kosong (ular tanpa klien digerakkan bot), sisanya menjadi penonton.
+ * Input klien masuk ke InputQueue per klien dan dibaca sekali per tick seperti GameLoop.
+ * Setiap tick perubahan (ArenaDelta) di-encode sekali ke satu buffer lalu ditulis ke semua klien;
+ * klien baru menerima keyframe. Sisa yang belum terkirim disimpan per klien sampai MAX_PENDING,
+ * klien yang lebih lambat dari itu diputus supaya server tidak menumpuk memori.
+ * Penonton dalam jumlah besar dilayani SpectatorHub di thread sendiri (--spectator-port).
+ *
+ * Contoh: java -cp out game.ArenaServer --port 7777 --board 512 --snakes 1000 --apples 10000
+ */
+public class ArenaServer implements Runnable {
+    public static final int DEFAULT_PORT = 7777;
+    private static final int PENDING_CHUNK = 64 * 1024; // Ukuran awal antrian kirim klien lambat
+    private static final int MAX_PENDING = 4 * 1024 * 1024; // Lebih dari ini klien diputus
+    private static final int BACKLOG = 4096; // Antrian accept (load test membuka ribuan koneksi sekaligus)
+
+    private final ArenaEngine engine;
+    private final ArenaDelta delta;
+    private final long tickNanos;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final char[] inputs; // Input tick ini per ular, 0 = bot
+    private final Client[] owners; // Klien pemilik tiap ular, null = bot
+    private final List<Client> clients = new ArrayList<>();
+    private ByteBuffer frame; // Frame tick yang dibagi semua klien (encode sekali per tick)
+    private SpectatorHub spectators; // null jika tidak ada penonton terpisah
+    private volatile boolean running = true;
+
+    // Statistik sejak laporan terakhir (hanya thread server)
+    private long stepNanos, fanoutNanos, frameBytes, tickCount, dropped;
+
+    // Satu koneksi: buffer baca kecil, antrian input, dan sisa kiriman jika socket penuh
+    private static class Client {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final ByteBuffer in = ByteBuffer.allocate(64); // Frame dari klien hanya INPUT (6 byte)
+        final InputQueue inputs = new InputQueue();
+        ByteBuffer pending; // Mode tulis; null jika belum pernah tertunda
+        int snake = -1; // -1 = penonton
+
+        Client(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        boolean hasPending() {
+            return pending != null && pending.position() > 0;
+        }
+    }
+
+    /**
+     * @param engine Arena otoritatif (hanya disentuh thread server setelah start)
+     * @param port Port TCP, 0 = port bebas (lihat getPort)
+     * @param tickMillis Jarak antar tick
+     */
+    public ArenaServer(ArenaEngine engine, int port, int tickMillis) throws IOException {
+        this.engine = engine;
+        this.delta = new ArenaDelta(engine.getSnakeCount());
+        this.tickNanos = tickMillis * 1_000_000L;
+        this.inputs = new char[engine.getSnakeCount()];
+        this.owners = new Client[engine.getSnakeCount()];
+        this.frame = ByteBuffer.allocateDirect(ArenaProtocol.keyframeSize(engine) + PENDING_CHUNK);
+        engine.setDelta(delta);
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(port), BACKLOG);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Method untuk meneruskan frame setiap tick ke hub penonton (panggil sebelum run)
+     * @param spectators Hub yang dijalankan di thread sendiri
+     */
+    public void setSpectators(SpectatorHub spectators) {
+        this.spectators = spectators;
+    }
+
+    /**
+     * Method untuk menjalankan server di thread pemanggil sampai close()
+     */
+    @Override
+    public void run() {
+        long nextTick = System.nanoTime() + tickNanos;
+        long nextReport = System.nanoTime() + 5_000_000_000L;
+        try {
+            while (running) {
+                long wait = nextTick - System.nanoTime();
+                if (wait > 0) selector.select(Math.max(1, wait / 1_000_000));
+                else selector.selectNow();
+                handleKeys();
+
+                long now = System.nanoTime();
+                if (now >= nextTick) {
+                    tick();
+                    nextTick += tickNanos;
+                    if (now - nextTick > tickNanos) nextTick = now + tickNanos; // Terlambat jauh: jangan mengejar
+                }
+                if (now >= nextReport) {
+                    printStats();
+                    nextReport = now + 5_000_000_000L;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Arena server stopped: " + e.getMessage());
+        } finally {
+            for (Client client : clients) closeQuietly(client.channel);
+            closeQuietly(server);
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    // Menghentikan run() dari thread lain
+    public void close() {
+        running = false;
+        selector.wakeup();
+    }
+
+    private void handleKeys() throws IOException {
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            if (!key.isValid()) continue;
+            if (key.isAcceptable()) {
+                accept();
+                continue;
+            }
+            Client client = (Client) key.attachment();
+            try {
+                if (key.isReadable()) read(client);
+                if (key.isValid() && key.isWritable()) flush(client);
+            } catch (IOException e) {
+                disconnect(client); // Koneksi putus di tengah baca / tulis
+            }
+        }
+    }
+
+    // Menerima semua koneksi yang menunggu, memberi ular kosong, lalu mengirim WELCOME + KEYFRAME
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Client client = new Client(channel, channel.register(selector, SelectionKey.OP_READ));
+            client.key.attach(client);
+            clients.add(client);
+            for (int i = 0; i < owners.length; i++) {
+                if (owners[i] == null) {
+                    owners[i] = client;
+                    client.snake = i;
+                    client.inputs.reset(engine.getDirection(i));
+                    break;
+                }
+            }
+
+            frame.clear();
+            ArenaProtocol.writeWelcome(frame, client.snake);
+            ensureCapacity(ArenaProtocol.WELCOME_SIZE + ArenaProtocol.keyframeSize(engine));
+            ArenaProtocol.writeKeyframe(engine, frame, System.nanoTime());
+            frame.flip();
+            send(client, frame);
+        }
+    }
+
+    // Membaca frame INPUT yang lengkap; frame lain atau panjang tidak wajar memutus klien
+    private void read(Client client) throws IOException {
+        ByteBuffer in = client.in;
+        if (client.channel.read(in) < 0) {
+            disconnect(client);
+            return;
+        }
+        in.flip();
+        while (in.remaining() >= ArenaProtocol.INPUT_SIZE) {
+            int length = in.getInt(in.position());
+            if (length != ArenaProtocol.INPUT_SIZE - ArenaProtocol.LENGTH_BYTES
+                    || in.get(in.position() + ArenaProtocol.LENGTH_BYTES) != ArenaProtocol.INPUT) {
+                disconnect(client);
+                return;
+            }
+            char direction = (char) in.get(in.position() + ArenaProtocol.LENGTH_BYTES + 1);
+            in.position(in.position() + ArenaProtocol.INPUT_SIZE);
+            if (client.snake >= 0) client.inputs.offer(direction);
+        }
+        in.compact();
+    }
+
+    // Satu tick: input -> step -> encode delta sekali -> tulis ke semua klien
+    private void tick() {
+        for (int i = 0; i < owners.length; i++) {
+            Client owner = owners[i];
+            if (owner == null) {
+                inputs[i] = 0;
+                continue;
+            }
+            inputs[i] = owner.inputs.poll(engine.getDirection(i));
+        }
+        long start = System.nanoTime();
+        engine.step(inputs);
+        long encodeStart = System.nanoTime();
+        stepNanos += encodeStart - start;
+
+        boolean keyframe = delta.isFull();
+        int size = keyframe ? ArenaProtocol.keyframeSize(engine) : delta.encodedSize();
+        ByteBuffer out;
+        if (spectators != null) {
+            out = spectators.claim(size); // Encode sekali ke buffer hub, dibagi pemain dan penonton
+        } else {
+            frame.clear();
+            ensureCapacity(size);
+            out = frame;
+        }
+        if (keyframe) ArenaProtocol.writeKeyframe(engine, out, encodeStart);
+        else delta.encode(out, engine.getTick(), encodeStart);
+        // Ular milik klien yang baru muncul: input lama dibuang, arah awal dari engine
+        for (int s = 0; s < delta.getSpawnCount(); s++) {
+            int snake = delta.getSpawnId(s);
+            if (owners[snake] != null) owners[snake].inputs.reset(engine.getDirection(snake));
+        }
+        delta.clear();
+        out.flip();
+        frameBytes += out.remaining();
+
+        for (int c = clients.size() - 1; c >= 0; c--) send(clients.get(c), out);
+        if (spectators != null) {
+            spectators.publish(out, keyframe); // Setelah ini buffer milik hub
+            if (spectators.needsKeyframe()) {
+                ByteBuffer key = spectators.claim(ArenaProtocol.keyframeSize(engine));
+                ArenaProtocol.writeKeyframe(engine, key, encodeStart);
+                spectators.publish(key.flip(), true);
+            }
+        }
+        fanoutNanos += System.nanoTime() - encodeStart;
+        tickCount++;
+    }
+
+    // Buffer frame hanya tumbuh saat keyframe lebih besar dari perkiraan awal (bukan di jalur delta biasa)
+    private void ensureCapacity(int bytes) {
+        if (frame.capacity() - frame.position() >= bytes) return;
+        ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(frame.capacity() * 2, frame.position() + bytes));
+        frame.flip();
+        larger.put(frame);
+        frame = larger;
+    }
+
+    // Menulis frame bersama ke klien; posisi frame dikembalikan supaya klien berikutnya menulis dari awal
+    private void send(Client client, ByteBuffer data) {
+        int start = data.position();
+        try {
+            if (!client.hasPending()) client.channel.write(data);
+            if (data.hasRemaining() && !queue(client, data)) {
+                dropped++;
+                disconnect(client);
+            }
+        } catch (IOException e) {
+            disconnect(client);
+        } finally {
+            data.position(start);
+        }
+    }
+
+    // Menyalin sisa frame ke antrian klien; false jika antrian sudah melewati MAX_PENDING
+    private boolean queue(Client client, ByteBuffer data) {
+        ByteBuffer pending = client.pending;
+        if (pending == null || pending.remaining() < data.remaining()) {
+            int needed = (pending == null ? 0 : pending.position()) + data.remaining();
+            if (needed > MAX_PENDING) return false;
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(PENDING_CHUNK, Integer.highestOneBit(needed) << 1));
+            if (pending != null) larger.put(pending.flip());
+            client.pending = pending = larger;
+        }
+        pending.put(data);
+        client.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        return true;
+    }
+
+    // Socket bisa ditulis lagi: kirim antrian klien
+    private void flush(Client client) throws IOException {
+        ByteBuffer pending = client.pending;
+        pending.flip();
+        client.channel.write(pending);
+        pending.compact();
+        if (pending.position() == 0) client.key.interestOps(SelectionKey.OP_READ);
+    }
+
+    // Menutup koneksi; ularnya kembali digerakkan bot
+    private void disconnect(Client client) {
+        if (!clients.remove(client)) return;
+        if (client.snake >= 0) owners[client.snake] = null;
+        client.key.cancel();
+        closeQuietly(client.channel);
+    }
+
+    private static void closeQuietly(java.io.Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void printStats() {
+        if (tickCount == 0) return;
+        int players = 0;
+        for (Client owner : owners) if (owner != null) players++;
+        System.out.printf("server: %d clients (%d players), tick %.1f us, fan-out %.1f us, %,d bytes/tick,"
+                + " %d slow clients dropped%n",
+            clients.size(), players, stepNanos / 1e3 / tickCount, fanoutNanos / 1e3 / tickCount,
+            frameBytes / tickCount, dropped);
+        stepNanos = fanoutNanos = frameBytes = tickCount = 0;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT, size = 512, snakes = 1000, apples = -1, tickMillis = 100;
+        int spectatorPort = -1, keyframeInterval = SpectatorHub.DEFAULT_KEYFRAME_INTERVAL;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--board" -> size = Integer.parseInt(args[++i]);
+                case "--snakes" -> snakes = Integer.parseInt(args[++i]);
+                case "--apples" -> apples = Integer.parseInt(args[++i]);
+                case "--tick" -> tickMillis = Integer.parseInt(args[++i]);
+                case "--spectator-port" -> spectatorPort = Integer.parseInt(args[++i]);
+                case "--keyframe-interval" -> keyframeInterval = Integer.parseInt(args[++i]);
+                default -> {
+                    System.err.println("Usage: ArenaServer [--port n] [--board n] [--snakes n] [--apples n] [--tick ms]"
+                        + " [--spectator-port n] [--keyframe-interval ticks]");
+                    System.exit(2);
+                }
+            }
+        }
+        ArenaEngine engine = new ArenaEngine(size, size, snakes, apples < 0 ? snakes * 10 : apples, System.nanoTime());
+        ArenaServer server = new ArenaServer(engine, port, tickMillis);
+        System.out.println("Arena server on port " + server.getPort() + ": " + size + "x" + size + ", "
+            + snakes + " snakes, tick " + tickMillis + " ms");
+        if (spectatorPort >= 0) {
+            SpectatorHub hub = new SpectatorHub(spectatorPort, keyframeInterval);
+            server.setSpectators(hub);
+            new Thread(hub, "spectator-hub").start();
+            System.out.println("Spectators on port " + hub.getPort() + ", keyframe every " + keyframeInterval + " ticks");
+        }
+        server.run();
+    }
+}
@@ -0,0 +1,310 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * Autopilot: ular bermain sendiri (mode demo dan soak test).
+ * Tiap tick arah dipilih lewat BFS di atas array int yang dialokasikan sekali (tanpa Point / collection):
+ * 1. jalur terpendek ke apel, asalkan setelah langkah pertama ekor masih terjangkau
+ *    atau ruang kosong masih cukup untuk seluruh tubuh;
+ * 2. jika tidak aman, ular mengikuti ekornya sendiri;
+ * 3. pilihan terakhir: tetangga dengan ruang kosong terbesar.
+ * Jumlah sel yang boleh dikunjungi per keputusan dibatasi (budget), jadi waktu per tick tetap
+ * walaupun arenanya besar; apel di luar jangkauan didekati lewat sel terdekat yang sempat dikunjungi.
+ * Hasilnya dimasukkan ke InputQueue.offer() seperti tombol dari KeyHandler.
+ * decide(engine, weights) adalah varian berbobot yang bobotnya dicari GeneticTuner.
+ */
+public class Autopilot {
+    public static final int DEFAULT_BUDGET = 8192; // Sel yang boleh dikunjungi per keputusan
+    public static final int WINDOW = 512; // Sisi jendela pencarian di sekitar kepala (arena besar)
+
+    // Index bobot untuk decide(engine, weights)
+    public static final int APPLE_WEIGHT = 0; // Jarak BFS ke apel (makin dekat makin baik)
+    public static final int SPACE_WEIGHT = 1; // Ruang kosong hasil flood fill, relatif terhadap panjang ular
+    public static final int TAIL_WEIGHT = 2; // Ekor masih terjangkau
+    public static final int SPECIAL_WEIGHT = 3; // Tambahan tarikan apel jika apelnya apel spesial
+    public static final int WEIGHT_COUNT = 4;
+
+    private static final char[] DIRECTIONS = {'U', 'R', 'D', 'L'}; // Urutan sama dengan Replay.directionIndex
+    private static final int[] DX = {0, 1, 0, -1};
+    private static final int[] DY = {-1, 0, 1, 0};
+
+    private final int cols, rows;
+    private final int budget;
+    private final int[] queue; // Antrian BFS berisi sel packed (lihat SnakeBody)
+    private final int[] firsts; // Arah pertama dari kepala untuk tiap sel di antrian
+    // Stamp search terakhir yang memeriksa tiap sel jendela. Arena kecil: jendela = seluruh arena;
+    // arena besar: jendela WINDOW x WINDOW yang digeser mengikuti kepala (budget tidak pernah sejauh itu)
+    private final int[] marks;
+    private final int windowCols, windowRows;
+    private int originX, originY; // Sel arena di pojok kiri atas jendela
+    private int stamp;
+
+    // State engine untuk keputusan yang sedang berjalan
+    private CellOccupancy occupancy;
+    private int tailCell; // Ekor (packed), boleh dilewati jika ekor bergerak di tick ini
+    private boolean tailMoves;
+    private int remaining; // Sisa budget keputusan ini
+    private int size; // Jumlah sel di antrian (= sel kosong yang dikunjungi) pada search terakhir
+    private boolean found; // true jika search terakhir mencapai target
+    private int distance; // Langkah dari sel awal ke target jika found
+
+    public Autopilot(int cols, int rows) {
+        this(cols, rows, Integer.getInteger("snake.autopilot.budget", DEFAULT_BUDGET));
+    }
+
+    /**
+     * @param cols Jumlah kolom arena
+     * @param rows Jumlah baris arena
+     * @param budget Maksimal sel yang dikunjungi per keputusan (menentukan waktu terlama per tick)
+     */
+    public Autopilot(int cols, int rows, int budget) {
+        this.cols = cols;
+        this.rows = rows;
+        this.budget = Math.max(16, budget);
+        this.queue = new int[this.budget];
+        this.firsts = new int[this.budget];
+        this.windowCols = Math.min(cols, WINDOW);
+        this.windowRows = Math.min(rows, WINDOW);
+        this.marks = new int[windowCols * windowRows];
+    }
+
+    /**
+     * Method untuk memilih arah tick berikutnya (panggil di thread pemilik engine, sebelum step)
+     * @param engine Engine yang dikendalikan
+     * @return arah baru (U/D/L/R), atau arah saat ini jika tidak ada yang perlu diubah
+     */
+    public char decide(GameEngine engine) {
+        char current = engine.getDirection();
+        SnakeBody body = engine.getBody();
+        if (engine.isGameOver() || engine.isRespawnPending() || body.length() == 0) return current;
+
+        prepare(engine, body);
+        int headX = engine.getHeadX(), headY = engine.getHeadY();
+        int reverse = Replay.directionIndex(GameEngine.opposite(current)); // Diabaikan engine, jangan dipilih
+        int length = body.length();
+
+        // 1. Menuju apel (atau sel terdekat dengannya jika apel di luar jangkauan budget)
+        if (engine.hasApple()) {
+            int direction = searchFromHead(headX, headY, reverse,
+                SnakeBody.pack(engine.getAppleX(), engine.getAppleY()), remaining / 2);
+            if (direction >= 0 && isSafe(headX + DX[direction], headY + DY[direction], length)) {
+                return DIRECTIONS[direction];
+            }
+        }
+
+        // 2. Mengikuti ekor: selama ekor terjangkau, ular tidak terkurung
+        if (length > 1) {
+            int direction = searchFromHead(headX, headY, reverse, tailCell, remaining / 2);
+            if (direction >= 0 && found) return DIRECTIONS[direction];
+        }
+
+        // 3. Tetangga dengan ruang kosong terbesar
+        int best = -1, bestSpace = -1;
+        for (int d = 0; d < 4; d++) {
+            int x = headX + DX[d], y = headY + DY[d];
+            if (d == reverse || !inWindow(x, y) || !isFree(x, y)) continue;
+            int space = fill(x, y, Math.min(length, remaining / 3 + 1));
+            if (space > bestSpace) {
+                best = d;
+                bestSpace = space;
+            }
+        }
+        return best >= 0 ? DIRECTIONS[best] : current;
+    }
+
+    /**
+     * Method untuk memilih tetangga kepala dengan skor berbobot tertinggi:
+     * - apel * (1 + spesial jika apel spesial) * jarak BFS ke apel / (cols + rows)
+     * + ruang * ruang kosong / panjang + ekor * (ekor terjangkau ? 1 : 0)
+     * @param engine Engine yang dikendalikan
+     * @param weights Bobot dengan urutan APPLE_WEIGHT .. SPECIAL_WEIGHT
+     * @return arah baru, atau arah saat ini jika semua tetangga tertutup
+     */
+    public char decide(GameEngine engine, double[] weights) {
+        char current = engine.getDirection();
+        SnakeBody body = engine.getBody();
+        if (engine.isGameOver() || engine.isRespawnPending() || body.length() == 0) return current;
+
+        prepare(engine, body);
+        int headX = engine.getHeadX(), headY = engine.getHeadY();
+        int reverse = Replay.directionIndex(GameEngine.opposite(current));
+        int length = body.length();
+        int limit = budget / 6; // Dua search untuk tiap tetangga (paling banyak tiga tetangga)
+        int apple = engine.hasApple() ? SnakeBody.pack(engine.getAppleX(), engine.getAppleY()) : -1;
+        double applePull = weights[APPLE_WEIGHT] / (cols + rows);
+        if (engine.getAppleType() != GameEngine.APPLE_NORMAL) applePull *= 1 + weights[SPECIAL_WEIGHT];
+
+        int best = -1;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int d = 0; d < 4; d++) {
+            int x = headX + DX[d], y = headY + DY[d];
+            if (d == reverse || !inWindow(x, y) || !isFree(x, y)) continue;
+            double score = 0;
+            if (apple != -1) score -= applePull * appleDistance(x, y, apple, limit);
+
+            // Satu search menjawab dua fitur: ekor terjangkau, dan ruang kosong jika ekor tidak terjangkau
+            int spaceLimit = Math.min(length, limit);
+            begin();
+            mark(x, y);
+            enqueue(x, y, 0);
+            search(length > 1 ? tailCell : -1, limit);
+            boolean tail = found || length == 1;
+            int space = tail ? spaceLimit : Math.min(size, spaceLimit); // Ekor terjangkau: ruang selalu terbuka lagi
+            score += weights[SPACE_WEIGHT] * space / spaceLimit;
+            if (tail) score += weights[TAIL_WEIGHT];
+
+            if (score > bestScore) {
+                best = d;
+                bestScore = score;
+            }
+        }
+        return best >= 0 ? DIRECTIONS[best] : current;
+    }
+
+    // Jarak BFS dari sel ke apel; jika apel di luar jangkauan limit, jarak Manhattan (batas bawah)
+    private int appleDistance(int x, int y, int apple, int limit) {
+        if (SnakeBody.pack(x, y) == apple) return 0;
+        begin();
+        mark(x, y);
+        enqueue(x, y, 0);
+        search(apple, limit);
+        if (found) return distance;
+        return Math.abs(x - SnakeBody.cellX(apple)) + Math.abs(y - SnakeBody.cellY(apple));
+    }
+
+    // Menyalin state engine yang dibaca search, dan menggeser jendela ke sekitar kepala
+    private void prepare(GameEngine engine, SnakeBody body) {
+        occupancy = body.getOccupancy();
+        tailCell = body.tailCell();
+        tailMoves = body.length() >= engine.getLength(); // Ekor tidak dibuang selama ular masih tumbuh
+        remaining = budget;
+        originX = Math.max(0, Math.min(engine.getHeadX() - windowCols / 2, cols - windowCols));
+        originY = Math.max(0, Math.min(engine.getHeadY() - windowRows / 2, rows - windowRows));
+    }
+
+    /**
+     * BFS dari tetangga kepala; tiap sel membawa arah pertama dari kepala
+     * @param target Sel tujuan (packed), boleh sel terisi seperti ekor
+     * @param limit Maksimal sel yang dikunjungi
+     * @return arah pertama menuju target (atau sel terdekat dengannya), -1 jika tidak ada langkah
+     */
+    private int searchFromHead(int headX, int headY, int reverse, int target, int limit) {
+        begin();
+        for (int d = 0; d < 4; d++) {
+            if (d == reverse) continue;
+            int x = headX + DX[d], y = headY + DY[d];
+            if (!inWindow(x, y)) continue;
+            if (SnakeBody.pack(x, y) == target && (target != tailCell || tailMoves)) { // Ekor yang diam tidak boleh diinjak
+                found = true;
+                end();
+                return d;
+            }
+            if (size < limit && mark(x, y) && isFree(x, y)) enqueue(x, y, d);
+        }
+        return search(target, limit);
+    }
+
+    // Aman jika dari sel ini ekor masih terjangkau, atau ruang kosongnya cukup untuk seluruh tubuh
+    private boolean isSafe(int x, int y, int length) {
+        int limit = Math.min(length, remaining);
+        begin();
+        mark(x, y);
+        enqueue(x, y, 0);
+        search(tailCell, limit);
+        return found || size >= limit;
+    }
+
+    // Jumlah sel kosong yang terjangkau dari sel ini (paling banyak limit)
+    private int fill(int x, int y, int limit) {
+        begin();
+        mark(x, y);
+        enqueue(x, y, 0);
+        search(-1, Math.min(limit, remaining));
+        return size;
+    }
+
+    /**
+     * Inti BFS atas antrian yang sudah diisi sel awal
+     * @param target Sel tujuan (packed), -1 jika hanya menghitung ruang
+     * @param limit Maksimal sel yang dikunjungi
+     * @return arah pertama ke target, atau ke sel terdekat (Manhattan) jika target tidak tercapai
+     */
+    private int search(int target, int limit) {
+        int targetX = SnakeBody.cellX(target), targetY = SnakeBody.cellY(target);
+        int best = -1, bestDistance = Integer.MAX_VALUE;
+        int head = 0;
+        int layerEnd = size, depth = 0; // Antrian BFS berurutan per lapis jarak
+        while (head < size) {
+            if (head == layerEnd) {
+                depth++;
+                layerEnd = size;
+            }
+            int first = firsts[head];
+            int cell = queue[head++];
+            int x = SnakeBody.cellX(cell), y = SnakeBody.cellY(cell);
+            if (target != -1) {
+                int distance = Math.abs(x - targetX) + Math.abs(y - targetY);
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = first;
+                }
+            }
+            for (int d = 0; d < 4; d++) {
+                int nx = x + DX[d], ny = y + DY[d];
+                if (!inWindow(nx, ny)) continue;
+                if (SnakeBody.pack(nx, ny) == target) {
+                    found = true;
+                    distance = depth + 1;
+                    end();
+                    return first;
+                }
+                // Sel diperiksa sekali per search (kosong maupun terisi), jadi peta okupansi tidak dibaca ulang
+                if (size < limit && mark(nx, ny) && isFree(nx, ny)) enqueue(nx, ny, first);
+            }
+        }
+        end();
+        return best;
+    }
+
+    // Memulai search baru: tanda dari search sebelumnya tidak berlaku lagi
+    private void begin() {
+        size = 0;
+        found = false;
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(marks, 0);
+            stamp = 1;
+        }
+    }
+
+    private void end() {
+        remaining = Math.max(0, remaining - size);
+    }
+
+    // Menandai sel sudah diperiksa, false jika sudah diperiksa di search ini
+    private boolean mark(int x, int y) {
+        int index = (y - originY) * windowCols + (x - originX);
+        if (marks[index] == stamp) return false;
+        marks[index] = stamp;
+        return true;
+    }
+
+    private void enqueue(int x, int y, int firstDirection) {
+        firsts[size] = firstDirection;
+        queue[size++] = SnakeBody.pack(x, y);
+    }
+
+    // Jendela selalu berada di dalam arena, jadi sel di luar jendela juga mencakup sel di luar arena
+    private boolean inWindow(int x, int y) {
+        return x >= originX && y >= originY && x < originX + windowCols && y < originY + windowRows;
+    }
+
+    // Sel bisa dilewati: kosong, atau ekor yang akan bergeser di tick ini
+    private boolean isFree(int x, int y) {
+        return occupancy.count(x, y) == 0 || (tailMoves && SnakeBody.pack(x, y) == tailCell);
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+}
@@ -0,0 +1,429 @@
+package game;
+
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Environment batch untuk melatih agent: N game berjalan serempak dalam array primitif (structure of arrays).
+ * Aturannya sama dengan GameEngine (skor, multiplier, pertumbuhan, efek, nyawa, level, pemilihan apel),
+ * jadi game ke-g dengan seed + g dan aksi yang sama menghasilkan permainan yang sama persis
+ * dengan new GameEngine(cols, rows, seed + g) yang dijalankan seperti Tournament (respawn langsung).
+ *
+ * step(actions) menerima satu aksi per game (0=U, 1=R, 2=D, 3=L, NO_ACTION = lurus) lalu mengisi
+ * observasi, reward dan flag done di buffer yang dipakai ulang. Game yang selesai langsung di-reset
+ * dengan state acak lanjutan (seperti GameEngine.reset), statistiknya disimpan di episode*.
+ * Batch dibagi ke beberapa thread lewat ForkJoinPool; tiap game hanya disentuh satu thread per step.
+ *
+ * Contoh: java -cp out game.BatchEnv --games 4096 --threads 8
+ */
+public class BatchEnv {
+    public static final int NO_ACTION = -1;
+    // Observasi per game: bahaya di 4 arah, posisi apel relatif, arah saat ini (one-hot), panjang, invincible
+    public static final int OBS_SIZE = 12;
+    public static final float CRASH_REWARD = -1f; // Reward saat kehilangan nyawa; apel biasa = 1
+
+    private static final int[] DX = {0, 1, 0, -1}; // Urutan sama dengan Replay.directionIndex
+    private static final int[] DY = {-1, 0, 1, 0};
+    private static final int EFFECTS = 3; // GOLDEN, SPEED, BONUS (index = appleType - 1)
+    private static final int MIN_CHUNK = 64; // Game per tugas fork-join terkecil
+
+    private final int games, cols, rows, cells;
+    private final int maxTicks;
+    private final int capacity, capacityMask; // Ring buffer tubuh per game (pangkat dua)
+
+    // State per game (index g)
+    private final long[] rng; // State SplitMix64, sama dengan GameRandom
+    private final int[] head; // Sel kepala (packed, lihat SnakeBody)
+    private final int[] direction; // 0=U, 1=R, 2=D, 3=L
+    private final int[] bodyHead, bodyLength, targetLength; // Posisi kepala di ring, panjang saat ini, panjang tujuan
+    private final int[] apple, appleType; // Apel (packed, -1 = tidak ada) dan jenisnya
+    private final int[] score, lives, level, multiplier, applesEaten, specialApplesEaten;
+    private final int[] tick;
+    private final int[] freeCount; // Sel arena yang tidak ditempati
+    private final int[] activeEffects; // Bitmask efek aktif (1 << appleType)
+    private final boolean[] invincible;
+
+    // State per game dalam blok: bodies[g * capacity + i], counts / freeCells / freePosition[g * cells + index],
+    // effectExpiry[g * EFFECTS + t]
+    private final int[] bodies;
+    private final byte[] counts; // Jumlah segmen per sel (lebih dari 1 hanya saat invincible)
+    private final int[] freeCells, freePosition; // Daftar padat sel kosong, sama dengan FreeCells
+    private final int[] effectExpiry;
+
+    // Buffer hasil step, dipakai ulang
+    private final float[] observations;
+    private final float[] rewards;
+    private final boolean[] dones;
+    private final int[] episodeScore, episodeLevel, episodeApples, episodeSpecial, episodeTicks; // Episode terakhir
+
+    private final ForkJoinPool pool; // null = satu thread (pemanggil)
+    private int[] actions; // Aksi step yang sedang berjalan
+
+    /**
+     * @param games Jumlah game dalam batch (dibatasi supaya blok semua game muat dalam satu array int)
+     * @param cols Jumlah kolom papan (papan padat, paling banyak CellOccupancy.DENSE_LIMIT sel)
+     * @param rows Jumlah baris papan
+     * @param seed Seed game pertama; game ke-g memakai seed + g
+     * @param maxTicks Episode dipotong (done) setelah sekian tick
+     * @param threads Jumlah thread untuk step (1 = di thread pemanggil)
+     */
+    public BatchEnv(int games, int cols, int rows, long seed, int maxTicks, int threads) {
+        if ((long) cols * rows > CellOccupancy.DENSE_LIMIT) {
+            throw new IllegalArgumentException("Board too large for BatchEnv: " + cols + "x" + rows);
+        }
+        this.games = games;
+        this.cols = cols;
+        this.rows = rows;
+        this.cells = cols * rows;
+        this.maxTicks = maxTicks;
+        // Tubuh bisa sedikit lebih panjang dari luas arena saat invincible (segmen bertumpuk)
+        this.capacity = Integer.highestOneBit(Math.max(2, cells * 2 - 1)) << 1;
+        this.capacityMask = capacity - 1;
+        // Blok semua game ada dalam satu array, jadi games * blok terbesar (tubuh, lebih besar dari cells) harus muat di int
+        int maxGames = Integer.MAX_VALUE / Math.max(capacity, OBS_SIZE);
+        if (games < 1 || games > maxGames) {
+            throw new IllegalArgumentException("BatchEnv on " + cols + "x" + rows + " needs 1.." + maxGames + " games: " + games);
+        }
+
+        rng = new long[games];
+        head = new int[games];
+        direction = new int[games];
+        bodyHead = new int[games];
+        bodyLength = new int[games];
+        targetLength = new int[games];
+        apple = new int[games];
+        appleType = new int[games];
+        score = new int[games];
+        lives = new int[games];
+        level = new int[games];
+        multiplier = new int[games];
+        applesEaten = new int[games];
+        specialApplesEaten = new int[games];
+        tick = new int[games];
+        freeCount = new int[games];
+        activeEffects = new int[games];
+        invincible = new boolean[games];
+        bodies = new int[games * capacity];
+        counts = new byte[games * cells];
+        freeCells = new int[games * cells];
+        freePosition = new int[games * cells];
+        effectExpiry = new int[games * EFFECTS];
+
+        observations = new float[games * OBS_SIZE];
+        rewards = new float[games];
+        dones = new boolean[games];
+        episodeScore = new int[games];
+        episodeLevel = new int[games];
+        episodeApples = new int[games];
+        episodeSpecial = new int[games];
+        episodeTicks = new int[games];
+
+        pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        for (int g = 0; g < games; g++) {
+            rng[g] = seed + g;
+            reset(g);
+            observe(g);
+        }
+    }
+
+    /**
+     * Method untuk menjalankan satu tick di semua game
+     * @param actions Aksi per game (0=U, 1=R, 2=D, 3=L, NO_ACTION = lurus); berbalik arah diabaikan
+     */
+    public void step(int[] actions) {
+        this.actions = actions;
+        if (pool == null) stepRange(0, games);
+        else pool.invoke(new Range(0, games));
+    }
+
+    // Rentang game yang dibelah dua sampai cukup kecil untuk satu tugas
+    @SuppressWarnings("serial") // Tugas fork-join tidak pernah diserialisasi
+    private class Range extends RecursiveAction {
+        private final int from, to;
+
+        Range(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            int chunk = Math.max(MIN_CHUNK, games / (pool.getParallelism() * 4));
+            if (to - from > chunk) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Range(from, middle), new Range(middle, to));
+                return;
+            }
+            stepRange(from, to);
+        }
+    }
+
+    private void stepRange(int from, int to) {
+        for (int g = from; g < to; g++) {
+            float reward = stepGame(g, actions[g]);
+            boolean done = lives[g] == 0 || tick[g] >= maxTicks;
+            if (done) {
+                episodeScore[g] = score[g];
+                episodeLevel[g] = level[g];
+                episodeApples[g] = applesEaten[g];
+                episodeSpecial[g] = specialApplesEaten[g];
+                episodeTicks[g] = tick[g];
+                reset(g);
+            }
+            rewards[g] = reward;
+            dones[g] = done;
+            observe(g);
+        }
+    }
+
+    /**
+     * Satu tick satu game, urutannya sama dengan GameEngine.step()
+     * @return reward tick ini (skor yang didapat / 10, CRASH_REWARD jika kehilangan nyawa)
+     */
+    private float stepGame(int g, int action) {
+        if (action >= 0 && action < 4 && action != ((direction[g] + 2) & 3)) direction[g] = action;
+        int now = ++tick[g];
+
+        // Efek yang habis di tick ini berakhir sebelum ular bergerak
+        int active = activeEffects[g];
+        if (active != 0) {
+            for (int type = GameEngine.APPLE_GOLDEN; type <= GameEngine.APPLE_BONUS; type++) {
+                if ((active & (1 << type)) == 0 || effectExpiry[g * EFFECTS + type - 1] != now) continue;
+                active &= ~(1 << type);
+                if (type == GameEngine.APPLE_GOLDEN) multiplier[g] = 1;
+                if (type == GameEngine.APPLE_BONUS) invincible[g] = false;
+            }
+            activeEffects[g] = active;
+        }
+
+        int x = SnakeBody.cellX(head[g]) + DX[direction[g]];
+        int y = SnakeBody.cellY(head[g]) + DY[direction[g]];
+        addHead(g, x, y);
+        while (bodyLength[g] > targetLength[g]) removeTail(g);
+
+        float reward = 0;
+        if (head[g] == apple[g]) reward = eatApple(g) / 10f;
+
+        boolean inside = x >= 0 && y >= 0 && x < cols && y < rows;
+        if ((!inside || counts[g * cells + y * cols + x] > 1) && !invincible[g]) {
+            reward = CRASH_REWARD;
+            if (--lives[g] > 0) {
+                placeSnake(g); // Respawn langsung, seperti Tournament sebelum tick berikutnya
+                spawnApple(g);
+            }
+        }
+        return reward;
+    }
+
+    // Skor, efek, pertumbuhan, apel baru, dan level (sama dengan GameEngine.handleAppleEaten)
+    private int eatApple(int g) {
+        applesEaten[g]++;
+        int type = appleType[g];
+        int points = 10, growth = 1;
+        switch (type) {
+            case GameEngine.APPLE_GOLDEN -> {
+                points = 50;
+                multiplier[g] = 2;
+                growth = 3;
+            }
+            case GameEngine.APPLE_BONUS -> {
+                invincible[g] = true;
+                growth = 2;
+                lives[g] = Math.min(GameEngine.START_LIVES, lives[g] + 1);
+            }
+            default -> { }
+        }
+        if (type != GameEngine.APPLE_NORMAL) {
+            // Efek sejenis selalu diperpanjang: durasinya tetap, jadi jadwal baru selalu lebih lambat
+            effectExpiry[g * EFFECTS + type - 1] = tick[g] + GameEngine.effectDurationTicks(type);
+            activeEffects[g] |= 1 << type;
+            specialApplesEaten[g]++;
+        }
+        targetLength[g] += growth;
+        int gained = points * multiplier[g];
+        score[g] += gained;
+        spawnApple(g);
+        if (applesEaten[g] % 5 == 0) level[g]++;
+        return gained;
+    }
+
+    // Game baru dengan state acak lanjutan (sama dengan GameEngine.reset)
+    private void reset(int g) {
+        tick[g] = 0;
+        score[g] = 0;
+        lives[g] = GameEngine.START_LIVES;
+        level[g] = 1;
+        multiplier[g] = 1;
+        applesEaten[g] = 0;
+        specialApplesEaten[g] = 0;
+        invincible[g] = false;
+        activeEffects[g] = 0;
+        placeSnake(g);
+        spawnApple(g);
+    }
+
+    private void placeSnake(int g) {
+        while (bodyLength[g] > 0) removeTail(g);
+        // Urutan sel kosong kembali kanonik, seperti CellOccupancy.resetFreeCells()
+        int base = g * cells;
+        for (int i = 0; i < cells; i++) {
+            freeCells[base + i] = i;
+            freePosition[base + i] = i;
+        }
+        freeCount[g] = cells;
+        bodyHead[g] = 0;
+        targetLength[g] = 1;
+        direction[g] = 1; // Kanan
+        addHead(g, GameEngine.START_X, GameEngine.START_Y);
+    }
+
+    private void addHead(int g, int x, int y) {
+        if (bodyLength[g] == capacity) removeTail(g); // Tidak terjadi dalam permainan normal
+        int position = (bodyHead[g] - 1) & capacityMask;
+        bodyHead[g] = position;
+        head[g] = SnakeBody.pack(x, y);
+        bodies[g * capacity + position] = head[g];
+        bodyLength[g]++;
+        if (x >= 0 && y >= 0 && x < cols && y < rows && counts[g * cells + y * cols + x]++ == 0) {
+            // Sama dengan FreeCells.remove: tempatnya di daftar diisi elemen terakhir
+            int base = g * cells, index = y * cols + x;
+            int at = freePosition[base + index];
+            int last = freeCells[base + --freeCount[g]];
+            freeCells[base + at] = last;
+            freePosition[base + last] = at;
+            freePosition[base + index] = -1;
+        }
+    }
+
+    private void removeTail(int g) {
+        int tail = bodies[g * capacity + ((bodyHead[g] + bodyLength[g] - 1) & capacityMask)];
+        bodyLength[g]--;
+        int x = SnakeBody.cellX(tail), y = SnakeBody.cellY(tail);
+        if (x >= 0 && y >= 0 && x < cols && y < rows && --counts[g * cells + y * cols + x] == 0) {
+            // Sama dengan FreeCells.add: ditambahkan di akhir daftar
+            int base = g * cells, index = y * cols + x;
+            freeCells[base + freeCount[g]] = index;
+            freePosition[base + index] = freeCount[g]++;
+        }
+    }
+
+    // Apel di sel kosong acak, sama dengan FreeCells.sample(): satu angka acak, O(1)
+    private void spawnApple(int g) {
+        if (freeCount[g] == 0) {
+            apple[g] = -1;
+            return;
+        }
+        int cell = freeCells[g * cells + nextInt(g, freeCount[g])];
+        apple[g] = SnakeBody.pack(cell % cols, cell / cols);
+
+        // Probabilitas jenis apel: 70% normal, 10% golden, 10% speed, 10% bonus
+        int chance = nextInt(g, 100);
+        appleType[g] = chance < 70 ? GameEngine.APPLE_NORMAL : chance < 80 ? GameEngine.APPLE_GOLDEN
+            : chance < 90 ? GameEngine.APPLE_SPEED : GameEngine.APPLE_BONUS;
+    }
+
+    // Sama persis dengan GameRandom.nextInt, dengan state di rng[g]
+    private int nextInt(int g, int bound) {
+        int r = (int) (GameRandom.mix(rng[g] += GameRandom.GAMMA) >>> 33);
+        int m = bound - 1;
+        if ((bound & m) == 0) return (int) ((bound * (long) r) >> 31);
+        for (int u = r; u - (r = u % bound) + m < 0; u = (int) (GameRandom.mix(rng[g] += GameRandom.GAMMA) >>> 33)) { }
+        return r;
+    }
+
+    // Mengisi observasi game g
+    private void observe(int g) {
+        int o = g * OBS_SIZE;
+        int x = SnakeBody.cellX(head[g]), y = SnakeBody.cellY(head[g]);
+        for (int d = 0; d < 4; d++) {
+            int nx = x + DX[d], ny = y + DY[d];
+            boolean blocked = nx < 0 || ny < 0 || nx >= cols || ny >= rows || counts[g * cells + ny * cols + nx] != 0;
+            observations[o + d] = blocked ? 1f : 0f;
+        }
+        if (apple[g] >= 0) {
+            observations[o + 4] = (float) (SnakeBody.cellX(apple[g]) - x) / cols;
+            observations[o + 5] = (float) (SnakeBody.cellY(apple[g]) - y) / rows;
+        } else {
+            observations[o + 4] = 0f;
+            observations[o + 5] = 0f;
+        }
+        for (int d = 0; d < 4; d++) observations[o + 6 + d] = direction[g] == d ? 1f : 0f;
+        observations[o + 10] = (float) bodyLength[g] / cells;
+        observations[o + 11] = invincible[g] ? 1f : 0f;
+    }
+
+    // Buffer hasil (diisi ulang setiap step): observasi [g * OBS_SIZE + i], reward dan done per game
+    public float[] getObservations() { return observations; }
+    public float[] getRewards() { return rewards; }
+    public boolean[] getDones() { return dones; }
+
+    // State game yang sedang berjalan
+    public int getGames() { return games; }
+    public int getScore(int g) { return score[g]; }
+    public int getLevel(int g) { return level[g]; }
+    public int getLives(int g) { return lives[g]; }
+    public int getApplesEaten(int g) { return applesEaten[g]; }
+    public int getSpecialApplesEaten(int g) { return specialApplesEaten[g]; }
+    public int getTick(int g) { return tick[g]; }
+    public int getHead(int g) { return head[g]; }
+    public int getApple(int g) { return apple[g]; }
+    public int getLength(int g) { return bodyLength[g]; }
+
+    // Hasil episode terakhir yang selesai (berlaku jika done[g] di step tersebut)
+    public int getEpisodeScore(int g) { return episodeScore[g]; }
+    public int getEpisodeLevel(int g) { return episodeLevel[g]; }
+    public int getEpisodeApples(int g) { return episodeApples[g]; }
+    public int getEpisodeSpecial(int g) { return episodeSpecial[g]; }
+    public int getEpisodeTicks(int g) { return episodeTicks[g]; }
+
+    // Menghentikan thread pool
+    public void close() {
+        if (pool != null) pool.shutdown();
+    }
+
+    /**
+     * Mengukur env-step per detik dengan aksi acak
+     * Contoh: java -cp out game.BatchEnv --games 4096 --threads 8 --seconds 5
+     */
+    public static void main(String[] args) {
+        int games = 4096, threads = Runtime.getRuntime().availableProcessors(), size = 20;
+        double seconds = 5;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--games" -> games = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--board" -> size = Integer.parseInt(args[++i]);
+                case "--seconds" -> seconds = Double.parseDouble(args[++i]);
+                default -> {
+                    System.err.println("Usage: BatchEnv [--games n] [--threads n] [--board n] [--seconds s]");
+                    System.exit(2);
+                }
+            }
+        }
+
+        BatchEnv env = new BatchEnv(games, size, size, 1, 10_000, threads);
+        // Aksi acak dibuat di depan supaya yang diukur hanya env.step
+        int[][] actions = new int[64][games];
+        GameRandom random = new GameRandom(7);
+        for (int[] batch : actions) {
+            for (int g = 0; g < games; g++) batch[g] = random.nextInt(8) < 4 ? random.nextInt(4) : NO_ACTION;
+        }
+        long steps = 0, episodes = 0, scoreTotal = 0;
+        long start = System.nanoTime(), end = start + (long) (seconds * 1e9);
+        for (int round = 0; System.nanoTime() < end; round++) {
+            env.step(actions[round & 63]);
+            steps += games;
+            boolean[] dones = env.getDones();
+            for (int g = 0; g < games; g++) {
+                if (!dones[g]) continue;
+                episodes++;
+                scoreTotal += env.getEpisodeScore(g);
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        env.close();
+        System.out.printf(Locale.ROOT, "%d games on %dx%d, %d threads: %.1fM env-steps/s, %d episodes (mean score %.1f)%n",
+            games, size, size, threads, steps / elapsed / 1e6, episodes, episodes == 0 ? 0 : (double) scoreTotal / episodes);
+    }
+}
@@ -0,0 +1,493 @@
+package game;
+
+import javax.swing.SwingUtilities;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Pemeriksaan alokasi jalur panas permainan (ThreadMXBean). Pengukuran waktu ada di modul JMH (jmh/game,
+ * mvn -Pjmh package); di sini hanya pemeriksaan lolos / gagal yang bisa dipakai sebagai gate.
+ *
+ * Contoh: java -Djava.awt.headless=true -cp out game.Benchmark --alloc --filter tick
+ *
+ * Dengan --alloc, yang diukur adalah byte yang dialokasikan per operasi:
+ * tick simulasi harus 0 byte, render dilaporkan terhadap RENDER_ALLOC_BUDGET.
+ * Setiap kasus baru disiapkan saat dijalankan, jadi --filter melewati setup kasus lain.
+ *
+ * Dengan --verify, dijalankan pemeriksaan perilaku yang terlalu lama untuk jalur tick
+ * (mis. autopilot tidak pernah menabrak ekor yang diam di 200 game ber-seed,
+ * BatchEnv sama persis dengan GameEngine yang dijalankan berdampingan).
+ */
+public class Benchmark {
+    private static final int ALLOC_OPERATIONS = 100_000; // Tick per pengukuran alokasi (setelah warmup sama banyak)
+    private static final int ALLOC_FRAMES = 1_000; // Frame per pengukuran alokasi render
+    private static final int ALLOC_ROUNDS = 3;
+    private static final long RENDER_ALLOC_BUDGET = 1024; // Byte per frame yang masih diterima (termasuk createGraphics benchmark)
+    private static final char[] DIRECTIONS = {'U', 'R', 'D', 'L'};
+    private static final int[] DX = {0, 1, 0, -1};
+    private static final int[] DY = {-1, 0, 1, 0};
+
+    static volatile long sink; // Mencegah JIT membuang hasil operasi
+
+    // Satu operasi yang diperiksa; nilai kembalian dimasukkan ke sink
+    interface Operation {
+        long run();
+    }
+
+    // Pemeriksaan untuk --verify: null jika lolos, atau keterangan kegagalan
+    interface Check {
+        String run();
+    }
+
+    static class Verification {
+        final String name;
+        final String params;
+        final Check check;
+
+        Verification(String name, String params, Check check) {
+            this.name = name;
+            this.params = params;
+            this.check = check;
+        }
+    }
+
+    // Satu kasus beserta parameternya; setup baru dijalankan jika kasus lolos filter
+    static class Case {
+        final String name;
+        final String params;
+        final Supplier<Operation> setup;
+        final boolean onEventThread; // Kasus render dijalankan di EDT
+        final int allocOperations; // Operasi per pengukuran alokasi
+
+        Case(String name, String params, Supplier<Operation> setup, boolean onEventThread) {
+            this(name, params, setup, onEventThread, onEventThread ? ALLOC_FRAMES : ALLOC_OPERATIONS);
+        }
+
+        // Operasi yang berat (mis. satu replay penuh) cukup diukur alokasinya beberapa kali
+        Case(String name, String params, Supplier<Operation> setup, boolean onEventThread, int allocOperations) {
+            this.name = name;
+            this.params = params;
+            this.setup = setup;
+            this.onEventThread = onEventThread;
+            this.allocOperations = allocOperations;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String filter = null;
+        String mode = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--filter" -> filter = args[++i];
+                case "--alloc", "--verify" -> mode = args[i];
+                default -> mode = null;
+            }
+        }
+        if (mode == null) {
+            System.err.println("Usage: Benchmark --alloc|--verify [--filter name]");
+            System.err.println("Timing benchmarks: mvn -Pjmh package && java -jar target/benchmarks.jar");
+            System.exit(2);
+        }
+        if (mode.equals("--verify")) {
+            List<Verification> checks = new ArrayList<>();
+            addAutopilotVerifications(checks);
+            addBatchEnvVerifications(checks);
+            System.exit(verify(checks, filter) ? 0 : 1);
+        }
+
+        List<Case> cases = new ArrayList<>();
+        addSnakeCases(cases);
+        addSpawnCases(cases);
+        addTickCases(cases);
+        addArenaCases(cases);
+        addReplayCases(cases);
+        addRewindCases(cases);
+        addAutopilotCases(cases);
+        addBatchEnvCases(cases);
+        addRenderCases(cases);
+
+        boolean passed = checkAllocations(cases, filter);
+        System.exit(passed ? 0 : 1); // Timer Swing dari kasus render tidak menahan JVM
+    }
+
+    // Snake.move + isColliding: gerak satu sel lalu cek tabrakan, untuk berbagai panjang tubuh
+    private static void addSnakeCases(List<Case> cases) {
+        for (int length : new int[] {1, 10, 50, 100, 200, 400}) {
+            cases.add(new Case("snakeMoveCollide", "length=" + length, () -> {
+                int[] path = CycleRoute.path(20, 20);
+                SnakeBody body = new SnakeBody(20, 20, 400);
+                for (int i = length - 1; i >= 0; i--) {
+                    body.addHead(SnakeBody.cellX(path[i]), SnakeBody.cellY(path[i]));
+                }
+                int[] position = {length - 1};
+                return () -> {
+                    int next = path[++position[0] % path.length];
+                    body.addHead(SnakeBody.cellX(next), SnakeBody.cellY(next));
+                    body.removeTail();
+                    return body.isHeadColliding() ? 1 : next;
+                };
+            }, false));
+        }
+    }
+
+    // Apple.spawn: memilih sel dan jenis apel baru
+    private static void addSpawnCases(List<Case> cases) {
+        cases.add(new Case("appleSpawn", "board=20x20", () -> {
+            GameEngine engine = new GameEngine(20, 20, 1);
+            return () -> {
+                engine.spawnApple();
+                return engine.getAppleX() + engine.getAppleY();
+            };
+        }, false));
+
+        // Ambil sel kosong acak saat arena hampir kosong sampai hampir penuh
+        for (int fill : new int[] {0, 50, 90, 99}) {
+            cases.add(new Case("freeCellSample", "board=100x100,fill=" + fill + "%", () -> {
+                int[] path = CycleRoute.path(100, 100);
+                SnakeBody body = new SnakeBody(100, 100, path.length);
+                for (int i = 0; i < path.length * fill / 100; i++) {
+                    body.addHead(SnakeBody.cellX(path[i]), SnakeBody.cellY(path[i]));
+                }
+                GameRandom random = new GameRandom(3);
+                return () -> body.getOccupancy().randomFreeCell(random);
+            }, false));
+        }
+    }
+
+    // Satu tick penuh GameEngine dengan input acak (game di-reset saat game over)
+    private static void addTickCases(List<Case> cases) {
+        char[] directions = {'U', 'D', 'L', 'R'};
+        for (int size : new int[] {20, 512, 4096}) {
+            cases.add(new Case("gameTick", "board=" + size + "x" + size, () -> {
+                GameEngine engine = new GameEngine(size, size, 7);
+                GameRandom input = new GameRandom(11);
+                return () -> {
+                    int events = engine.step(directions[input.nextInt(4)]);
+                    engine.getChanges().clear();
+                    if ((events & GameEngine.EVENT_GAME_OVER) != 0) engine.reset();
+                    return events;
+                };
+            }, false));
+        }
+
+        // Spawn apel di papan besar dengan ular 1000 segmen
+        cases.add(new Case("appleSpawn", "board=4096x4096,length=1000", () -> {
+            GameEngine large = new GameEngine(4096, 4096, 5);
+            for (int i = 0; i < 1000; i++) large.getBody().addHead(100 + i, 100);
+            return () -> {
+                large.spawnApple();
+                return large.getAppleX() + large.getAppleY();
+            };
+        }, false));
+    }
+
+    // Satu tick arena, dan tick server multipemain (step dengan pencatat delta lalu encode)
+    private static void addArenaCases(List<Case> cases) {
+        int[][] configs = {{512, 10, 100}, {512, 100, 1000}, {512, 1000, 10000}, {4096, 1000, 10000}};
+        for (int[] config : configs) {
+            cases.add(new Case("arenaTick", "board=" + config[0] + ",snakes=" + config[1] + ",apples=" + config[2], () -> {
+                ArenaEngine arena = new ArenaEngine(config[0], config[0], config[1], config[2], 13);
+                return () -> arena.step((char) 0);
+            }, false));
+        }
+
+        cases.add(new Case("arenaDeltaTick", "board=512,snakes=1000,apples=10000", () -> {
+            ArenaEngine served = new ArenaEngine(512, 512, 1000, 10000, 13);
+            ArenaDelta delta = new ArenaDelta(served.getSnakeCount());
+            served.setDelta(delta);
+            char[] inputs = new char[served.getSnakeCount()];
+            ByteBuffer frame = ByteBuffer.allocateDirect(64 * 1024);
+            return () -> {
+                served.step(inputs);
+                frame.clear();
+                delta.encode(frame, served.getTick(), 0);
+                delta.clear();
+                return frame.position();
+            };
+        }, false));
+    }
+
+    // Verifikasi dan seek replay 1 jam (72000 tick pada kecepatan maksimal 50ms)
+    private static void addReplayCases(List<Case> cases) {
+        String params = "ticks=" + 3600_000 / GameEngine.MIN_DELAY;
+        cases.add(new Case("replayVerify", params, () -> {
+            Replay replay = recordReplay();
+            GameEngine engine = replay.createEngine();
+            return () -> replay.verify(engine);
+        }, false, 20));
+        cases.add(new Case("replaySeek", params, () -> {
+            Replay replay = recordReplay();
+            GameEngine engine = replay.createEngine();
+            GameRandom target = new GameRandom(19);
+            return () -> {
+                replay.seek(engine, target.nextInt((int) replay.getFinalTick()));
+                return engine.getScore();
+            };
+        }, false, 1000));
+    }
+
+    // Merekam game 1 jam yang mengikuti cycleRoute, lalu memastikan replay-nya cocok
+    private static Replay recordReplay() {
+        GameEngine recorded = new GameEngine(20, 20, 17);
+        recorded.setRecorder(new ReplayRecorder());
+        recorded.reset();
+        CycleRoute.play(recorded, CycleRoute.directions(20, 20), 3600_000 / GameEngine.MIN_DELAY);
+        Replay replay;
+        try {
+            replay = new Replay(recorded.getRecorder().encode(recorded));
+        } catch (java.io.IOException e) {
+            throw new IllegalStateException(e);
+        }
+        if (replay.verify(replay.createEngine()) != -1) throw new IllegalStateException("Replay does not match recording");
+        return replay;
+    }
+
+    // Tick dengan buffer rewind terpasang, dan mundur 1 / 600 tick
+    private static void addRewindCases(List<Case> cases) {
+        cases.add(new Case("gameTickRewind", "board=20x20", () -> {
+            char[] route = CycleRoute.directions(20, 20);
+            GameEngine recording = new GameEngine(20, 20, 23);
+            recording.setRewindBuffer(new RewindBuffer());
+            return () -> {
+                if (recording.isGameOver()) recording.reset();
+                CycleRoute.play(recording, route, 1);
+                return recording.getScore();
+            };
+        }, false));
+
+        for (int ticks : new int[] {1, 600}) {
+            cases.add(new Case("rewind", "ticks=" + ticks, () -> {
+                char[] route = CycleRoute.directions(20, 20);
+                GameEngine engine = new GameEngine(20, 20, 29);
+                engine.setRewindBuffer(new RewindBuffer());
+                CycleRoute.play(engine, route, 20_000); // Ular panjang, buffer penuh
+                return () -> {
+                    int rewound = engine.rewind(ticks);
+                    CycleRoute.play(engine, route, rewound); // Isi buffer lagi untuk operasi berikutnya
+                    return rewound;
+                };
+            }, false));
+        }
+    }
+
+    // Keputusan autopilot pada game biasa, ular panjang, dan papan besar
+    private static void addAutopilotCases(List<Case> cases) {
+        cases.add(new Case("autopilotTick", "board=20x20", () -> {
+            GameEngine playing = new GameEngine(20, 20, 37);
+            Autopilot pilot = new Autopilot(20, 20, Autopilot.DEFAULT_BUDGET);
+            return () -> {
+                if (playing.isRespawnPending()) playing.respawn();
+                int events = playing.step(pilot.decide(playing));
+                playing.getChanges().clear();
+                if ((events & GameEngine.EVENT_GAME_OVER) != 0) playing.reset();
+                return events;
+            };
+        }, false));
+
+        // Ular panjang di papan kecil (pencarian ekor dan ruang kosong paling sering terpakai)
+        cases.add(new Case("autopilotDecide", "board=20x20,length=200", () -> {
+            GameEngine crowded = crowdedGame();
+            Autopilot pilot = new Autopilot(20, 20, Autopilot.DEFAULT_BUDGET);
+            return () -> pilot.decide(crowded);
+        }, false));
+        cases.add(new Case("autopilotWeighted", "board=20x20,length=200", () -> {
+            GameEngine crowded = crowdedGame();
+            Autopilot pilot = new Autopilot(20, 20, Autopilot.DEFAULT_BUDGET);
+            double[] weights = GeneticTuner.DEFAULT_WEIGHTS.clone();
+            return () -> pilot.decide(crowded, weights);
+        }, false));
+
+        for (int size : new int[] {512, 4096}) {
+            cases.add(new Case("autopilotDecide", "board=" + size + "x" + size + ",budget=" + Autopilot.DEFAULT_BUDGET, () -> {
+                GameEngine engine = new GameEngine(size, size, 43);
+                Autopilot large = new Autopilot(size, size, Autopilot.DEFAULT_BUDGET);
+                return () -> large.decide(engine);
+            }, false));
+        }
+    }
+
+    // Game 20x20 dengan ular sepanjang 200 (mengikuti cycleRoute)
+    private static GameEngine crowdedGame() {
+        GameEngine crowded = new GameEngine(20, 20, 41);
+        char[] route = CycleRoute.directions(20, 20);
+        while (crowded.getBody().length() < 200) CycleRoute.play(crowded, route, 1);
+        return crowded;
+    }
+
+    // Satu step seluruh batch di satu thread
+    private static void addBatchEnvCases(List<Case> cases) {
+        for (int games : new int[] {256, 4096}) {
+            cases.add(new Case("batchEnvStep", "games=" + games + ",board=20x20", () -> {
+                BatchEnv env = new BatchEnv(games, 20, 20, 47, 10_000, 1);
+                int[][] actions = new int[16][games];
+                GameRandom random = new GameRandom(53);
+                for (int[] batch : actions) {
+                    for (int g = 0; g < games; g++) batch[g] = random.nextInt(8) < 4 ? random.nextInt(4) : BatchEnv.NO_ACTION;
+                }
+                int[] round = {0};
+                return () -> {
+                    env.step(actions[round[0]++ & 15]);
+                    return env.getScore(0);
+                };
+            }, false, 1000));
+        }
+    }
+
+    // Autopilot tidak boleh melangkah ke ekor yang tidak bergeser (ular masih tumbuh) selama masih ada tetangga kosong.
+    // Ular yang sudah terkurung (semua tetangga terisi) memang pasti mati, tidak dihitung
+    private static void addAutopilotVerifications(List<Verification> checks) {
+        checks.add(new Verification("autopilotTail", "games=200,board=20x20", () -> {
+            GameEngine engine = new GameEngine(20, 20, 0);
+            Autopilot pilot = new Autopilot(20, 20, Autopilot.DEFAULT_BUDGET);
+            int deaths = 0, tailDeaths = 0;
+            for (long seed = 1; seed <= 200; seed++) {
+                engine.getRandom().setState(seed);
+                engine.reset(); // Sama dengan Tournament.play
+                while (!engine.isGameOver() && engine.getTick() < 20_000) {
+                    if (engine.isRespawnPending()) engine.respawn();
+                    int tail = engine.getBody().tailCell();
+                    boolean tailMoves = engine.getBody().length() >= engine.getLength();
+                    boolean trapped = isTrapped(engine, tail, tailMoves);
+                    int events = engine.step(pilot.decide(engine));
+                    engine.getChanges().clear();
+                    if ((events & (GameEngine.EVENT_LIFE_LOST | GameEngine.EVENT_GAME_OVER)) == 0) continue;
+                    deaths++;
+                    if (!tailMoves && !trapped && SnakeBody.pack(engine.getHeadX(), engine.getHeadY()) == tail) tailDeaths++;
+                }
+            }
+            return tailDeaths == 0 ? null : tailDeaths + " of " + deaths + " deaths hit a tail that does not move";
+        }));
+    }
+
+    // Semua tetangga kepala (kecuali arah balik) di luar arena atau terisi tubuh yang tidak bergeser
+    private static boolean isTrapped(GameEngine engine, int tail, boolean tailMoves) {
+        char reverse = GameEngine.opposite(engine.getDirection());
+        for (int d = 0; d < 4; d++) {
+            if (DIRECTIONS[d] == reverse) continue;
+            int x = engine.getHeadX() + DX[d], y = engine.getHeadY() + DY[d];
+            if (x < 0 || y < 0 || x >= engine.getCols() || y >= engine.getRows()) continue;
+            if (!engine.getBody().isOccupied(x, y) || (tailMoves && SnakeBody.pack(x, y) == tail)) return false;
+        }
+        return true;
+    }
+
+    // BatchEnv dan GameEngine ber-seed sama dijalankan berdampingan dengan aksi acak yang sama;
+    // GameEngine di-respawn langsung setelah step dan di-reset tanpa seed baru, sama dengan BatchEnv
+    private static void addBatchEnvVerifications(List<Verification> checks) {
+        int games = 256, steps = 20_000, maxTicks = 2_000;
+        checks.add(new Verification("batchEnvMatchesEngine", "games=" + games + ",steps=" + steps, () -> {
+            BatchEnv env = new BatchEnv(games, 20, 20, 61, maxTicks, 1);
+            GameEngine[] engines = new GameEngine[games];
+            for (int g = 0; g < games; g++) engines[g] = new GameEngine(20, 20, 61 + g);
+            int[] actions = new int[games];
+            GameRandom random = new GameRandom(67);
+            for (int step = 0; step < steps; step++) {
+                for (int g = 0; g < games; g++) actions[g] = random.nextInt(8) < 3 ? random.nextInt(4) : BatchEnv.NO_ACTION;
+                env.step(actions);
+                for (int g = 0; g < games; g++) {
+                    GameEngine engine = engines[g];
+                    engine.step(actions[g] == BatchEnv.NO_ACTION ? 0 : DIRECTIONS[actions[g]]);
+                    engine.getChanges().clear();
+                    if (engine.isRespawnPending()) engine.respawn();
+                    boolean done = engine.isGameOver() || engine.getTick() >= maxTicks;
+                    if (done != env.getDones()[g]) return "game " + g + " done differs at step " + step;
+                    if (done) {
+                        if (env.getEpisodeScore(g) != engine.getScore() || env.getEpisodeTicks(g) != engine.getTick()) {
+                            return "game " + g + " episode result differs at step " + step;
+                        }
+                        engine.reset();
+                    }
+                    int apple = engine.hasApple() ? SnakeBody.pack(engine.getAppleX(), engine.getAppleY()) : -1;
+                    if (env.getHead(g) != SnakeBody.pack(engine.getHeadX(), engine.getHeadY()) || env.getApple(g) != apple
+                        || env.getScore(g) != engine.getScore() || env.getLives(g) != engine.getLives()
+                        || env.getLevel(g) != engine.getLevel() || env.getLength(g) != engine.getBody().length()
+                        || env.getTick(g) != engine.getTick()) {
+                        return "game " + g + " state differs at step " + step;
+                    }
+                }
+            }
+            return null;
+        }));
+    }
+
+    // paintComponent ke BufferedImage offscreen untuk tiap tema (setup dan gambar di EDT)
+    private static void addRenderCases(List<Case> cases) {
+        String[] themes = {"default", "dark", "nature"};
+        for (int theme = 1; theme <= 3; theme++) {
+            int themeId = theme;
+            cases.add(new Case("render", "theme=" + themes[theme - 1], () -> {
+                GamePanel panel = new GamePanel();
+                panel.setSize(600, 650);
+                panel.changeTheme(themeId);
+                panel.startGame();
+                BufferedImage image = new BufferedImage(600, 650, BufferedImage.TYPE_INT_RGB);
+                return () -> {
+                    Graphics2D g2d = image.createGraphics();
+                    panel.paintComponent(g2d);
+                    g2d.dispose();
+                    return image.getRGB(300, 300);
+                };
+            }, true));
+        }
+    }
+
+    /**
+     * Menjalankan pemeriksaan --verify satu per satu
+     * @return true jika semua pemeriksaan lolos
+     */
+    private static boolean verify(List<Verification> checks, String filter) {
+        boolean passed = true;
+        for (Verification verification : checks) {
+            if (filter != null && !verification.name.contains(filter)) continue;
+            String failure = verification.check.run();
+            passed &= failure == null;
+            System.out.printf(Locale.ROOT, "%-24s %-24s %s%n",
+                verification.name, verification.params, failure == null ? "OK" : "FAIL " + failure);
+        }
+        return passed;
+    }
+
+    /**
+     * Mengukur alokasi per operasi untuk setiap kasus.
+     * Kasus simulasi (bukan EDT) gagal jika mengalokasikan satu byte pun setelah warmup;
+     * kasus render dibandingkan dengan RENDER_ALLOC_BUDGET.
+     * @return true jika semua kasus lolos
+     */
+    private static boolean checkAllocations(List<Case> cases, String filter) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        boolean passed = true;
+        for (Case benchmark : cases) {
+            if (filter != null && !benchmark.name.contains(filter)) continue;
+            int operations = benchmark.allocOperations;
+            long[] allocated = {Long.MAX_VALUE};
+            Runnable task = () -> {
+                Operation operation = benchmark.setup.get();
+                long sum = 0;
+                for (int i = 0; i < operations; i++) sum += operation.run(); // Warmup (buffer tumbuh, JIT)
+                // Diambil ronde terkecil: alokasi sekali jalan dari JIT (deoptimisasi) tidak dihitung
+                for (int round = 0; round < ALLOC_ROUNDS; round++) {
+                    long before = threads.getCurrentThreadAllocatedBytes();
+                    for (int i = 0; i < operations; i++) sum += operation.run();
+                    allocated[0] = Math.min(allocated[0], threads.getCurrentThreadAllocatedBytes() - before);
+                }
+                sink = sum;
+            };
+            if (benchmark.onEventThread) SwingUtilities.invokeAndWait(task);
+            else task.run();
+
+            double perOperation = (double) allocated[0] / operations;
+            boolean ok = benchmark.onEventThread ? perOperation <= RENDER_ALLOC_BUDGET : allocated[0] == 0;
+            passed &= ok;
+            System.out.printf(Locale.ROOT, "%-24s %-20s %12.1f B/op  (%d bytes over %d ops, limit %s) %s%n",
+                benchmark.name, benchmark.params, perOperation, allocated[0], operations,
+                benchmark.onEventThread ? RENDER_ALLOC_BUDGET + " B/frame" : "0", ok ? "OK" : "FAIL");
+        }
+        return passed;
+    }
+}
@@ -0,0 +1,58 @@
+package game;
+
+// Kamera arena: menentukan sel kiri-atas yang terlihat di viewport.
+// Kepala ular dijaga di tengah, tapi viewport tidak pernah keluar dari tepi papan.
+public class Camera {
+    private final int cols, rows; // Ukuran papan (sel)
+    private final int viewCols, viewRows; // Ukuran viewport (sel)
+    private int x, y; // Sel kiri-atas yang terlihat
+
+    public Camera(int cols, int rows, int viewCols, int viewRows) {
+        this.cols = cols;
+        this.rows = rows;
+        this.viewCols = Math.min(viewCols, cols);
+        this.viewRows = Math.min(viewRows, rows);
+    }
+
+    /**
+     * Menggeser kamera mengikuti kepala ular
+     * @param headX Kolom kepala
+     * @param headY Baris kepala
+     * @return true jika viewport bergeser (seluruh arena perlu digambar ulang)
+     */
+    public boolean follow(int headX, int headY) {
+        int newX = originX(headX);
+        int newY = originY(headY);
+        boolean moved = newX != x || newY != y;
+        x = newX;
+        y = newY;
+        return moved;
+    }
+
+    // Kolom kiri viewport jika kepala ada di headX
+    public int originX(int headX) {
+        return clamp(headX - viewCols / 2, cols - viewCols);
+    }
+
+    // Baris atas viewport jika kepala ada di headY
+    public int originY(int headY) {
+        return clamp(headY - viewRows / 2, rows - viewRows);
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    // Cek apakah sel berada di dalam viewport
+    public boolean isVisible(int cellX, int cellY) {
+        return cellX >= x && cellY >= y && cellX < x + viewCols && cellY < y + viewRows;
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(max, value));
+    }
+}
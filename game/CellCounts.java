@@ -0,0 +1,141 @@
+package game;
+
+import java.util.Arrays;
+
+// Peta jumlah segmen per sel untuk arena besar (open addressing, linear probing).
+// Ukurannya mengikuti jumlah sel yang terisi, bukan luas arena.
+public class CellCounts {
+    private static final int EMPTY = -1; // Key kosong (index sel selalu >= 0)
+
+    private int[] keys;
+    private int[] counts;
+    private int mask;
+    private int size; // Jumlah sel dengan hitungan > 0
+
+    public CellCounts(int expected) {
+        int capacity = 16;
+        while (capacity < expected * 2) capacity <<= 1; // Load factor maksimal 0.5
+        allocate(capacity);
+    }
+
+    public int get(int key) {
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            int k = keys[slot];
+            if (k == key) return counts[slot];
+            if (k == EMPTY) return 0;
+        }
+    }
+
+    /**
+     * Menambah hitungan sel
+     * @param key Index sel (>= 0)
+     * @return hitungan setelah ditambah
+     */
+    public int increment(int key) {
+        if (size * 2 >= keys.length) grow();
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            int k = keys[slot];
+            if (k == key) return ++counts[slot];
+            if (k == EMPTY) {
+                keys[slot] = key;
+                counts[slot] = 1;
+                size++;
+                return 1;
+            }
+        }
+    }
+
+    /**
+     * Mengurangi hitungan sel, entri dihapus saat hitungan jadi 0
+     * @param key Index sel (>= 0)
+     * @return hitungan setelah dikurangi
+     */
+    public int decrement(int key) {
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            int k = keys[slot];
+            if (k == EMPTY) return 0;
+            if (k == key) {
+                if (--counts[slot] > 0) return counts[slot];
+                delete(slot);
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Mengisi nilai sel secara langsung (dipakai sebagai peta sel -> nilai)
+     * @param key Index sel (>= 0)
+     * @param value Nilai baru, 0 menghapus entri
+     */
+    public void set(int key, int value) {
+        if (value > 0 && size * 2 >= keys.length) grow();
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            int k = keys[slot];
+            if (k == key) {
+                if (value > 0) counts[slot] = value;
+                else delete(slot);
+                return;
+            }
+            if (k == EMPTY) {
+                if (value > 0) {
+                    keys[slot] = key;
+                    counts[slot] = value;
+                    size++;
+                }
+                return;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(counts, 0);
+        size = 0;
+    }
+
+    // Hapus dengan menggeser entri berikutnya ke belakang (tanpa tombstone)
+    private void delete(int slot) {
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int ideal = hash(keys[next]) & mask;
+            // Entri boleh pindah ke hole jika posisi idealnya tidak berada di antara hole dan next
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                counts[hole] = counts[next];
+                hole = next;
+            }
+        }
+        keys[hole] = EMPTY;
+        counts[hole] = 0;
+        size--;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldCounts = counts;
+        allocate(keys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int slot = hash(oldKeys[i]) & mask;
+            while (keys[slot] != EMPTY) slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            counts[slot] = oldCounts[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        counts = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,114 @@
+package game;
+
+import java.nio.ByteBuffer;
+
+// Peta okupansi grid: jumlah segmen ular yang menempati tiap sel.
+// Bisa dipakai satu ular (GameEngine) atau dibagi banyak ular (ArenaEngine),
+// sehingga cek tabrakan antar ular cukup satu lookup per kepala.
+// Arena kecil memakai array seukuran grid + himpunan sel kosong untuk spawn apel;
+// arena besar memakai hash map sehingga memori mengikuti jumlah segmen, bukan luas arena.
+public class CellOccupancy {
+    public static final int DENSE_LIMIT = 1 << 18; // Arena sampai 512x512 sel memakai array penuh
+
+    private final int cols, rows; // Ukuran grid
+    private final int[] counts; // Jumlah segmen per sel (null di arena besar)
+    private final FreeCells free; // Sel yang tidak ditempati segmen mana pun (null di arena besar)
+    private final CellCounts sparse; // Okupansi arena besar (null di arena kecil)
+
+    /**
+     * @param cols Jumlah kolom
+     * @param rows Jumlah baris
+     * @param expected Perkiraan jumlah sel terisi (kapasitas awal hash map di arena besar)
+     */
+    public CellOccupancy(int cols, int rows, int expected) {
+        this.cols = cols;
+        this.rows = rows;
+        if ((long) cols * rows <= DENSE_LIMIT) {
+            this.counts = new int[cols * rows];
+            this.free = new FreeCells(cols, rows);
+            this.sparse = null;
+        } else {
+            this.counts = null;
+            this.free = null;
+            this.sparse = new CellCounts(expected);
+        }
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    // Index sel di grid (y * cols + x), -1 jika di luar arena
+    public int indexOf(int cellX, int cellY) {
+        if (cellX < 0 || cellY < 0 || cellX >= cols || cellY >= rows) return -1;
+        return cellY * cols + cellX;
+    }
+
+    // Menambah satu segmen di sel (sel di luar arena tidak dicatat)
+    public void add(int cellX, int cellY) {
+        int index = indexOf(cellX, cellY);
+        if (index < 0) return;
+        if (counts == null) sparse.increment(index);
+        else if (counts[index]++ == 0) free.remove(index);
+    }
+
+    // Mengurangi satu segmen di sel
+    public void remove(int cellX, int cellY) {
+        int index = indexOf(cellX, cellY);
+        if (index < 0) return;
+        if (counts == null) sparse.decrement(index);
+        else if (--counts[index] == 0) free.add(index);
+    }
+
+    // Jumlah segmen di sel (0 jika kosong atau di luar arena)
+    public int count(int cellX, int cellY) {
+        int index = indexOf(cellX, cellY);
+        if (index < 0) return 0;
+        return counts == null ? sparse.get(index) : counts[index];
+    }
+
+    // Jumlah sel berbeda yang ditempati (segmen yang bertumpuk dihitung sekali)
+    public int occupiedCells() {
+        return counts == null ? sparse.size() : cols * rows - free.size();
+    }
+
+    // Urutan sel kosong kembali kanonik (dipanggil saat peta okupansi kosong, mis. ular ditempatkan ulang)
+    public void resetFreeCells() {
+        if (free != null) free.reset();
+    }
+
+    // Ukuran maksimal writeFreeCells() dalam byte (0 di arena besar: rejection sampling tidak punya urutan)
+    public int freeCellsStateSize() {
+        return free == null ? 0 : free.stateSize();
+    }
+
+    // Menyimpan / mengembalikan urutan sel kosong (bagian dari state game, lihat FreeCells)
+    public void writeFreeCells(ByteBuffer buffer) {
+        if (free != null) free.write(buffer);
+    }
+
+    public void readFreeCells(ByteBuffer buffer) {
+        if (free != null) free.read(buffer);
+    }
+
+    /**
+     * Memilih sel kosong secara acak dengan peluang sama.
+     * Arena kecil: ambil langsung dari FreeCells. Arena besar: rejection sampling,
+     * rata-rata percobaan 1 / (1 - terisi), jadi tetap cepat selama ular jauh lebih kecil dari arena.
+     * @param random Sumber angka acak milik engine
+     * @return sel dalam bentuk packed, atau -1 jika arena penuh
+     */
+    public int randomFreeCell(GameRandom random) {
+        if (free != null) return free.sample(random);
+        if (occupiedCells() >= cols * rows) return -1;
+        while (true) {
+            int cellX = random.nextInt(cols);
+            int cellY = random.nextInt(rows);
+            if (sparse.get(cellY * cols + cellX) == 0) return SnakeBody.pack(cellX, cellY);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package game;
+
+// Catatan perubahan selama satu tick: sel grid yang berubah dan field HUD yang berubah.
+// GamePanel mengubahnya menjadi repaint per region, atau repaint penuh jika diminta.
+public class ChangeSet {
+    // Field HUD yang bisa berubah
+    // (Highscore hanya berubah saat game over, yang selalu menggambar ulang seluruh panel)
+    public static final int HUD_SCORE = 1;
+    public static final int HUD_LEVEL = 1 << 1;
+    public static final int HUD_MULTIPLIER = 1 << 2;
+    public static final int HUD_SPEED = 1 << 3;
+    public static final int HUD_INVINCIBLE = 1 << 4;
+    public static final int HUD_LIVES = 1 << 5;
+
+    private final int[] cells = new int[16]; // Sel yang berubah (format packed SnakeBody)
+    private int cellCount = 0;
+    private int hudFields = 0; // Gabungan flag HUD_*
+    private boolean full = false; // true jika seluruh panel harus digambar ulang
+
+    // Menandai satu sel grid sebagai berubah
+    public void addCell(int packedCell) {
+        if (full) return;
+        if (cellCount == cells.length) {
+            full = true; // Terlalu banyak perubahan, lebih murah repaint penuh
+            return;
+        }
+        cells[cellCount++] = packedCell;
+    }
+
+    public void addCell(int cellX, int cellY) {
+        addCell(SnakeBody.pack(cellX, cellY));
+    }
+
+    // Menandai field HUD sebagai berubah
+    public void addHud(int fields) {
+        hudFields |= fields;
+    }
+
+    // Meminta repaint penuh (ganti tema, pause, overlay level up, respawn)
+    public void markFull() {
+        full = true;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    public int getCell(int i) {
+        return cells[i];
+    }
+
+    public int getHudFields() {
+        return hudFields;
+    }
+
+    public boolean isEmpty() {
+        return !full && cellCount == 0 && hudFields == 0;
+    }
+
+    // Dipanggil setelah perubahan diproses
+    public void clear() {
+        cellCount = 0;
+        hudFields = 0;
+        full = false;
+    }
+}
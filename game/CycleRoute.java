@@ -0,0 +1,48 @@
+package game;
+
+/**
+ * Rute siklus Hamilton di papan: ular yang mengikutinya baru mati setelah memenuhi papan.
+ * Dipakai strategi "cycle" di Tournament dan untuk menyiapkan ular panjang di Benchmark / JMH.
+ * Siklus: baris-baris berkelok di kolom 1..cols-1, lalu kembali lewat kolom 0 (jumlah baris harus genap).
+ */
+public class CycleRoute {
+    // Jalur keliling yang melewati semua sel tepat sekali (sel packed, lihat SnakeBody.pack)
+    static int[] path(int cols, int rows) {
+        int[] path = new int[cols * rows];
+        int n = 0;
+        for (int y = 0; y < rows; y++) {
+            if (y % 2 == 0) {
+                for (int x = 1; x < cols; x++) path[n++] = SnakeBody.pack(x, y);
+            } else {
+                for (int x = cols - 1; x >= 1; x--) path[n++] = SnakeBody.pack(x, y);
+            }
+        }
+        for (int y = rows - 1; y >= 0; y--) path[n++] = SnakeBody.pack(0, y);
+        return path;
+    }
+
+    /**
+     * Arah di setiap sel untuk mengikuti siklus Hamilton.
+     * Siklus dijalani terbalik supaya dari posisi awal (menghadap kanan) sel berikutnya ada di kanan.
+     * @return arah per index sel (y * cols + x)
+     */
+    static char[] directions(int cols, int rows) {
+        int[] cycle = path(cols, rows);
+        char[] route = new char[cols * rows];
+        for (int i = 0; i < cycle.length; i++) {
+            int from = cycle[i], to = cycle[(i - 1 + cycle.length) % cycle.length];
+            int dx = SnakeBody.cellX(to) - SnakeBody.cellX(from), dy = SnakeBody.cellY(to) - SnakeBody.cellY(from);
+            route[SnakeBody.cellY(from) * cols + SnakeBody.cellX(from)] = dx > 0 ? 'R' : dx < 0 ? 'L' : dy > 0 ? 'D' : 'U';
+        }
+        return route;
+    }
+
+    // Menjalankan engine mengikuti route dari directions() (respawn seperti GamePanel)
+    static void play(GameEngine engine, char[] route, int ticks) {
+        for (int t = 0; t < ticks && !engine.isGameOver(); t++) {
+            if (engine.isRespawnPending()) engine.respawn();
+            engine.step(route[engine.getHeadY() * engine.getCols() + engine.getHeadX()]);
+            engine.getChanges().clear();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * Penjadwal berakhirnya efek apel spesial berdasarkan tick (timing wheel).
+ * Tiap slot roda berisi bitmask jenis efek yang habis di tick itu, jadi advance() cukup
+ * membaca satu slot per tick. Efek berbeda boleh aktif bersamaan dengan masa berlaku masing-masing.
+ */
+public class EffectScheduler {
+    public static final int WHEEL_SIZE = 128; // Harus pangkat dua
+    private static final int MASK = WHEEL_SIZE - 1;
+    private static final int MAX_TYPES = 32; // Jenis efek dipakai sebagai index bit
+
+    private final int[] wheel = new int[WHEEL_SIZE]; // Bitmask jenis efek per slot
+    private final long[] expiry = new long[MAX_TYPES]; // Tick berakhirnya tiap efek (hanya berarti jika aktif)
+    private int active; // Bitmask efek yang sedang aktif
+
+    /**
+     * Menjadwalkan (atau memperpanjang) efek.
+     * Aturan tumpuk: efek sejenis yang dimakan lagi diperpanjang, tidak pernah diperpendek.
+     * @param type Jenis efek (0..31)
+     * @param expiryTick Tick saat efek berakhir
+     */
+    public void schedule(int type, long expiryTick) {
+        int bit = 1 << type;
+        if ((active & bit) != 0) {
+            if (expiry[type] >= expiryTick) return;
+            wheel[(int) (expiry[type] & MASK)] &= ~bit; // Jadwal lama dibatalkan
+        }
+        expiry[type] = expiryTick;
+        active |= bit;
+        wheel[(int) (expiryTick & MASK)] |= bit;
+    }
+
+    /**
+     * Memajukan roda ke tick berikutnya (dipanggil tepat sekali per tick)
+     * @param tick Tick yang sedang dijalankan
+     * @return Bitmask efek yang berakhir di tick ini
+     */
+    public int advance(long tick) {
+        int slot = (int) (tick & MASK);
+        int due = wheel[slot];
+        if (due == 0) return 0;
+
+        int expired = 0;
+        for (int bits = due; bits != 0; bits &= bits - 1) {
+            int type = Integer.numberOfTrailingZeros(bits);
+            // Efek dengan durasi lebih dari satu putaran roda tetap di slot sampai tick-nya tiba
+            if (expiry[type] <= tick) expired |= 1 << type;
+        }
+        wheel[slot] = due & ~expired;
+        active &= ~expired;
+        return expired;
+    }
+
+    public boolean isActive(int type) {
+        return (active & (1 << type)) != 0;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    // Tick berakhirnya efek, 0 jika tidak aktif
+    public long getExpiry(int type) {
+        return isActive(type) ? expiry[type] : 0;
+    }
+
+    // Menghapus semua efek (game baru)
+    public void clear() {
+        Arrays.fill(wheel, 0);
+        active = 0;
+    }
+}
@@ -0,0 +1,65 @@
+package game;
+
+// Salinan state engine untuk satu frame gambar.
+// Diisi oleh thread game loop, lalu dibaca EDT tanpa menyentuh engine.
+public class FrameState {
+    // Waktu tick (System.nanoTime) dan durasi sampai tick berikutnya, untuk interpolasi
+    public long tickNanos;
+    public long tickDurationNanos;
+    public long tick;
+
+    // Tubuh ular dari kepala ke ekor (packed, lihat SnakeBody)
+    public int[] cells = new int[64];
+    public int length;
+    public boolean moved; // false jika ular baru ditempatkan (tidak perlu interpolasi)
+    public boolean tailDropped;
+    public int droppedTail;
+    public char direction;
+
+    // Apel
+    public int appleX, appleY, appleType;
+
+    // HUD
+    public int score, level, multiplier, lives, effectType;
+    public boolean speedBoosted, invincible;
+
+    /**
+     * Menyalin state engine ke frame ini (tanpa alokasi kecuali ular memanjang melewati kapasitas)
+     * @param engine Engine sumber
+     * @param tickNanos Waktu tick dijadwalkan
+     * @param tickDurationNanos Durasi tick berikutnya
+     */
+    public void copyFrom(GameEngine engine, long tickNanos, long tickDurationNanos) {
+        this.tickNanos = tickNanos;
+        this.tickDurationNanos = tickDurationNanos;
+        this.tick = engine.getTick();
+
+        SnakeBody body = engine.getBody();
+        length = body.length();
+        if (cells.length < length) cells = new int[Math.max(length, cells.length * 2)];
+        for (int i = 0; i < length; i++) cells[i] = body.get(i);
+        moved = engine.hasMoved();
+        tailDropped = engine.isTailDropped();
+        droppedTail = engine.getDroppedTail();
+        direction = engine.getDirection();
+
+        appleX = engine.getAppleX();
+        appleY = engine.getAppleY();
+        appleType = engine.getAppleType();
+
+        score = engine.getScore();
+        level = engine.getLevel();
+        multiplier = engine.getMultiplier();
+        lives = engine.getLives();
+        effectType = engine.getEffectType();
+        speedBoosted = engine.isSpeedBoosted();
+        invincible = engine.isInvincible();
+    }
+
+    // Posisi segmen ke-i pada tick sebelumnya (segmen bergeser satu sel ke arah kepala)
+    public int previousCell(int i) {
+        if (!moved) return cells[i];
+        if (i + 1 < length) return cells[i + 1];
+        return tailDropped ? droppedTail : cells[i];
+    }
+}
@@ -0,0 +1,100 @@
+package game;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Himpunan sel arena yang kosong, untuk memilih posisi apel secara acak.
+// Daftar padat + posisi tiap sel di daftar: tambah, hapus, dan ambil acak semuanya O(1).
+// Sel terpilih bergantung pada urutan daftar (hasil tambah/hapus sebelumnya), jadi urutan itu ikut
+// disimpan di state game (write/read) dan dikembalikan ke urutan index setiap kali arena dikosongkan (reset),
+// supaya game yang dipulihkan dari snapshot atau replay memilih apel yang sama persis.
+public class FreeCells {
+    private final int cols;
+    private final int[] cells; // cells[0..count) berisi index sel yang kosong (y * cols + x)
+    private final int[] position; // Posisi tiap sel di cells, -1 jika sel terisi
+    private int count;
+
+    public FreeCells(int cols, int rows) {
+        this.cols = cols;
+        this.cells = new int[cols * rows];
+        this.position = new int[cols * rows];
+        reset();
+    }
+
+    // Semua sel kosong, urut index (dipanggil saat tidak ada sel yang terisi)
+    public void reset() {
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = i;
+            position[i] = i;
+        }
+        count = cells.length;
+    }
+
+    // Menandai sel terisi: tempatnya di daftar diisi elemen terakhir
+    public void remove(int index) {
+        int at = position[index];
+        if (at < 0) return;
+        int last = cells[--count];
+        cells[at] = last;
+        position[last] = at;
+        position[index] = -1;
+    }
+
+    // Menandai sel kosong kembali: ditambahkan di akhir daftar
+    public void add(int index) {
+        if (position[index] >= 0) return;
+        cells[count] = index;
+        position[index] = count++;
+    }
+
+    public boolean contains(int index) {
+        return position[index] >= 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Mengambil satu sel kosong secara acak (peluang sama untuk tiap sel)
+     * @param random Sumber angka acak milik engine
+     * @return sel dalam bentuk packed (lihat SnakeBody), atau -1 jika arena penuh
+     */
+    public int sample(GameRandom random) {
+        if (count == 0) return -1;
+        int index = cells[random.nextInt(count)];
+        return SnakeBody.pack(index % cols, index / cols);
+    }
+
+    // Ukuran maksimal write() dalam byte
+    public int stateSize() {
+        return 4 + count * indexBytes();
+    }
+
+    // Index sel ditulis 2 byte jika arena paling banyak 65536 sel
+    private int indexBytes() {
+        return cells.length <= 0x10000 ? 2 : 4;
+    }
+
+    // Menyimpan urutan daftar: jumlah sel kosong, lalu index tiap sel
+    public void write(ByteBuffer buffer) {
+        buffer.putInt(count);
+        boolean small = indexBytes() == 2;
+        for (int i = 0; i < count; i++) {
+            if (small) buffer.putChar((char) cells[i]);
+            else buffer.putInt(cells[i]);
+        }
+    }
+
+    // Mengembalikan urutan yang ditulis write() (isi himpunan harus sama dengan okupansi saat ini)
+    public void read(ByteBuffer buffer) {
+        count = buffer.getInt();
+        Arrays.fill(position, -1);
+        boolean small = indexBytes() == 2;
+        for (int i = 0; i < count; i++) {
+            int index = small ? buffer.getChar() : buffer.getInt();
+            cells[i] = index;
+            position[index] = i;
+        }
+    }
+}
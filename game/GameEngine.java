@@ -0,0 +1,556 @@
+package game;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Inti simulasi permainan tanpa Swing/AWT: state + step(input).
+// GamePanel dan mode headless sama-sama memanggil engine ini.
+public class GameEngine {
+    // Event yang dikembalikan step() (bisa digabung)
+    public static final int EVENT_APPLE_EATEN = 1;
+    public static final int EVENT_EFFECT_STARTED = 1 << 1;
+    public static final int EVENT_LEVEL_UP = 1 << 2;
+    public static final int EVENT_LIFE_LOST = 1 << 3;
+    public static final int EVENT_GAME_OVER = 1 << 4;
+    public static final int EVENT_EFFECT_ENDED = 1 << 5;
+
+    // Jenis apel (juga dipakai sebagai jenis efek aktif)
+    public static final int APPLE_NORMAL = 0;
+    public static final int APPLE_GOLDEN = 1;
+    public static final int APPLE_SPEED = 2;
+    public static final int APPLE_BONUS = 3;
+
+    public static final int START_DELAY = 150; // Delay awal antar tick (ms)
+    public static final int MIN_DELAY = 50; // Delay tercepat (ms)
+    public static final int START_LIVES = 3;
+    public static final int START_X = 3, START_Y = 3; // Posisi awal kepala (sel), sama dengan piksel (125,125)
+
+    private final int cols, rows; // Ukuran arena dalam sel
+    private final GameRandom random;
+    private final SnakeBody body;
+    private final ChangeSet changes = new ChangeSet();
+    private final EffectScheduler effects = new EffectScheduler(); // Berakhirnya efek apel spesial (per tick)
+    private ReplayRecorder recorder; // null jika permainan tidak direkam
+    private RewindBuffer rewind; // null jika rewind tidak aktif
+
+    // State ular
+    private int headX, headY; // Posisi kepala (sel)
+    private int targetLength; // Panjang yang dituju, ekor tidak dibuang selama body lebih pendek
+    private char direction; // Arah gerak terakhir (U/D/L/R)
+
+    // State apel
+    private int appleX, appleY, appleType;
+
+    // State permainan
+    private int score, lives, level, multiplier, delay;
+    private int applesEaten, specialApplesEaten;
+    private boolean speedBoosted, invincible;
+    private int effectType; // Jenis apel yang efeknya sedang aktif (APPLE_NORMAL = tidak ada)
+    private boolean respawnPending, gameOver;
+    private int[] levelHighScores = new int[16]; // Skor tertinggi saat mencapai tiap level
+
+    // Info gerakan tick terakhir (dipakai untuk interpolasi gambar)
+    private long tick; // Jumlah tick yang sudah dijalankan
+    private boolean moved; // false jika ular baru ditempatkan (reset/respawn)
+    private boolean tailDropped; // true jika ekor dibuang pada tick terakhir
+    private int droppedTail; // Sel ekor yang dibuang (packed)
+
+    public GameEngine(int cols, int rows, long seed) {
+        this.cols = cols;
+        this.rows = rows;
+        this.random = new GameRandom(seed);
+        this.body = new SnakeBody(cols, rows, Math.min(cols * rows, 1024)); // Ring buffer tumbuh sendiri jika perlu
+        reset();
+    }
+
+    // Memulai permainan baru (skor, nyawa, level kembali ke awal)
+    public void reset() {
+        long seed = random.getState(); // State acak sebelum game dimulai = seed replay
+        tick = 0; // Tick dihitung dari awal game
+        score = 0;
+        lives = START_LIVES;
+        level = 1;
+        multiplier = 1;
+        delay = START_DELAY;
+        applesEaten = 0;
+        specialApplesEaten = 0;
+        speedBoosted = false;
+        invincible = false;
+        effectType = APPLE_NORMAL;
+        effects.clear();
+        respawnPending = false;
+        gameOver = false;
+        Arrays.fill(levelHighScores, 0);
+        placeSnake();
+        spawnApple();
+        changes.markFull();
+        if (rewind != null) rewind.clear();
+        if (recorder != null) recorder.begin(this, seed);
+    }
+
+    /**
+     * Menjalankan satu tick permainan
+     * @param input Arah yang diminta (U/D/L/R), atau 0 jika tidak ada input
+     * @return gabungan flag EVENT_*
+     */
+    public int step(char input) {
+        if (gameOver) return EVENT_GAME_OVER;
+        if (respawnPending) {
+            respawn();
+            return 0;
+        }
+
+        int rewindSlot = -1;
+        if (rewind != null) {
+            rewindSlot = rewind.push();
+            saveRewindState(rewindSlot);
+        }
+
+        // Arah berbalik 180 derajat diabaikan
+        char previousDirection = direction;
+        if (input != 0 && input != opposite(direction)) direction = input;
+        tick++;
+
+        // Efek yang habis di tick ini berakhir sebelum ular bergerak (juga saat invincible)
+        int events = 0;
+        int expired = effects.advance(tick);
+        if (expired != 0) events |= endEffects(expired);
+
+        // Movement logic
+        int dx = 0, dy = 0;
+        switch (direction) {
+            case 'U' -> dy = -1; // Atas
+            case 'D' -> dy = 1; // Bawah
+            case 'L' -> dx = -1; // Kiri
+            case 'R' -> dx = 1; // Kanan
+        }
+
+        changes.addCell(body.headCell()); // Kepala lama berubah jadi badan
+        headX += dx;
+        headY += dy;
+        body.addHead(headX, headY);
+        changes.addCell(body.headCell());
+        moved = true;
+        tailDropped = false;
+        while (body.length() > targetLength) {
+            droppedTail = body.tailCell();
+            tailDropped = true;
+            changes.addCell(droppedTail);
+            body.removeTail();
+        }
+
+        // Cek jika ular memakan apel
+        if (headX == appleX && headY == appleY) {
+            events |= handleAppleEaten();
+        }
+
+        // Deteksi tabrakan (dengan tubuh sendiri atau keluar arena)
+        if ((body.isHeadColliding() || isOutOfBounds()) && !invincible) {
+            events |= handleCollision();
+        }
+        if (rewindSlot >= 0) rewind.tails[rewindSlot] = tailDropped ? droppedTail : RewindBuffer.NO_TAIL;
+        if (recorder != null) recorder.onStep(this, direction != previousDirection);
+        return events;
+    }
+
+    // Menangani apel yang dimakan: skor, efek, pertumbuhan, apel baru, dan level
+    private int handleAppleEaten() {
+        int events = EVENT_APPLE_EATEN;
+        applesEaten++;
+        changes.addHud(ChangeSet.HUD_SCORE);
+
+        int points = 10;
+        int growthAmount = 1;
+        switch (appleType) {
+            case APPLE_GOLDEN -> {
+                points = 50; // Poin lebih banyak
+                multiplier = 2; // Multiplier 2x
+                growthAmount = 3;
+                changes.addHud(ChangeSet.HUD_MULTIPLIER);
+            }
+            case APPLE_SPEED -> {
+                speedBoosted = true;
+                delay = Math.max(MIN_DELAY, delay - 20);
+                changes.addHud(ChangeSet.HUD_SPEED);
+            }
+            case APPLE_BONUS -> {
+                invincible = true; // Aktifkan invincible
+                growthAmount = 2;
+                lives = Math.min(START_LIVES, lives + 1); // Tambah nyawa (maks 3)
+                changes.addHud(ChangeSet.HUD_INVINCIBLE | ChangeSet.HUD_LIVES);
+            }
+            default -> growthAmount = 1; // Apel normal, tambah 1 segmen
+        }
+        if (appleType != APPLE_NORMAL) {
+            // Efek berjalan berdampingan; efek sejenis diperpanjang dari tick ini
+            effects.schedule(appleType, tick + effectDurationTicks(appleType));
+            effectType = appleType;
+            specialApplesEaten++;
+            events |= EVENT_EFFECT_STARTED;
+        }
+
+        targetLength += growthAmount;
+        score += points * multiplier; // Tambah skor (dikalikan multiplier jika ada)
+
+        changes.addCell(appleX, appleY);
+        spawnApple(); // Buat apel baru di posisi random
+        changes.addCell(appleX, appleY);
+
+        // Naik level setiap 5 apel
+        if (applesEaten % 5 == 0) {
+            levelUp();
+            events |= EVENT_LEVEL_UP;
+        }
+        return events;
+    }
+
+    private void levelUp() {
+        level++;
+        delay = Math.max(MIN_DELAY, delay - 10); // Naikkan kecepatan
+        if (level >= levelHighScores.length) {
+            levelHighScores = Arrays.copyOf(levelHighScores, levelHighScores.length * 2);
+        }
+        if (score > levelHighScores[level]) levelHighScores[level] = score;
+        changes.addHud(ChangeSet.HUD_LEVEL);
+    }
+
+    private int handleCollision() {
+        lives--;
+        changes.addHud(ChangeSet.HUD_LIVES);
+        if (lives > 0) {
+            respawnPending = true; // Ular di-reset lewat respawn()
+            return EVENT_LIFE_LOST;
+        }
+        gameOver = true;
+        return EVENT_GAME_OVER;
+    }
+
+    // Menempatkan ular baru di posisi awal dan membuat apel baru
+    public void respawn() {
+        respawnPending = false;
+        placeSnake();
+        spawnApple();
+        changes.markFull();
+        if (rewind != null) rewind.clear(); // Tubuh baru tidak bisa dibangun dari delta
+    }
+
+    /**
+     * Method untuk mengakhiri efek yang masa berlakunya habis
+     * @param expired Bitmask jenis efek (1 << APPLE_*)
+     * @return EVENT_EFFECT_ENDED
+     */
+    private int endEffects(int expired) {
+        if ((expired & (1 << APPLE_GOLDEN)) != 0) multiplier = 1;
+        if ((expired & (1 << APPLE_SPEED)) != 0) speedBoosted = false;
+        if ((expired & (1 << APPLE_BONUS)) != 0) invincible = false;
+
+        // Warna kepala mengikuti efek aktif yang paling lama tersisa
+        effectType = APPLE_NORMAL;
+        for (int type = APPLE_GOLDEN; type <= APPLE_BONUS; type++) {
+            if (effects.isActive(type) && (effectType == APPLE_NORMAL
+                    || effects.getExpiry(type) > effects.getExpiry(effectType))) {
+                effectType = type;
+            }
+        }
+        changes.addHud(ChangeSet.HUD_MULTIPLIER | ChangeSet.HUD_SPEED | ChangeSet.HUD_INVINCIBLE);
+        changes.addCell(headX, headY); // Warna kepala berubah
+        return EVENT_EFFECT_ENDED;
+    }
+
+    // Menghapus semua efek apel spesial sekaligus
+    public void clearEffects() {
+        effects.clear();
+        speedBoosted = false;
+        invincible = false;
+        multiplier = 1;
+        effectType = APPLE_NORMAL;
+        changes.addHud(ChangeSet.HUD_MULTIPLIER | ChangeSet.HUD_SPEED | ChangeSet.HUD_INVINCIBLE);
+        changes.addCell(headX, headY); // Warna kepala kembali normal
+    }
+
+    private void placeSnake() {
+        body.clear();
+        body.getOccupancy().resetFreeCells(); // Pilihan apel setelah ini tidak bergantung riwayat game
+        headX = START_X;
+        headY = START_Y;
+        targetLength = 1;
+        direction = 'R';
+        body.addHead(headX, headY);
+        moved = false;
+        tailDropped = false;
+        droppedTail = 0;
+    }
+
+    // Menempatkan apel di sel kosong random (tidak pernah di tubuh ular) dan menentukan jenisnya
+    void spawnApple() {
+        int cell = body.getOccupancy().randomFreeCell(random);
+        if (cell < 0) {
+            appleX = appleY = -1; // Arena penuh, tidak ada apel
+            return;
+        }
+        appleX = SnakeBody.cellX(cell);
+        appleY = SnakeBody.cellY(cell);
+
+        // Probabilitas jenis apel: 70% normal, 10% golden, 10% speed, 10% bonus
+        int chance = random.nextInt(100);
+        if (chance < 70) appleType = APPLE_NORMAL;
+        else if (chance < 80) appleType = APPLE_GOLDEN;
+        else if (chance < 90) appleType = APPLE_SPEED;
+        else appleType = APPLE_BONUS;
+    }
+
+    private boolean isOutOfBounds() {
+        return headX < 0 || headY < 0 || headX >= cols || headY >= rows;
+    }
+
+    public static char opposite(char direction) {
+        return switch (direction) {
+            case 'U' -> 'D';
+            case 'D' -> 'U';
+            case 'L' -> 'R';
+            case 'R' -> 'L';
+            default -> 0;
+        };
+    }
+
+    // Durasi efek apel spesial dalam tick (10s / 8s / 5s pada kecepatan awal 150ms per tick)
+    public static int effectDurationTicks(int appleType) {
+        return switch (appleType) {
+            case APPLE_GOLDEN -> 10000 / START_DELAY;
+            case APPLE_SPEED -> 8000 / START_DELAY;
+            case APPLE_BONUS -> 5000 / START_DELAY;
+            default -> 0;
+        };
+    }
+
+    // Perkiraan ukuran maksimal writeState() dalam byte
+    public int stateSize() {
+        return 128 + levelHighScores.length * 4 + body.length() * 4 + body.getOccupancy().freeCellsStateSize();
+    }
+
+    /**
+     * Method untuk menyimpan seluruh state permainan ke buffer (keyframe replay / snapshot)
+     * @param buffer Buffer tujuan dengan sisa ruang minimal stateSize()
+     */
+    public void writeState(ByteBuffer buffer) {
+        buffer.putLong(tick).putLong(random.getState());
+        buffer.putInt(headX).putInt(headY).putInt(targetLength).putChar(direction);
+        buffer.putInt(appleX).putInt(appleY).putInt(appleType);
+        buffer.putInt(score).putInt(lives).putInt(level).putInt(multiplier).putInt(delay);
+        buffer.putInt(applesEaten).putInt(specialApplesEaten).putInt(effectType);
+        int flags = (speedBoosted ? 1 : 0) | (invincible ? 2 : 0) | (respawnPending ? 4 : 0)
+            | (gameOver ? 8 : 0) | (moved ? 16 : 0) | (tailDropped ? 32 : 0);
+        buffer.put((byte) flags).putInt(droppedTail);
+
+        // Efek aktif beserta tick berakhirnya
+        buffer.putInt(effects.getActive());
+        for (int type = APPLE_GOLDEN; type <= APPLE_BONUS; type++) {
+            if (effects.isActive(type)) buffer.putLong(effects.getExpiry(type));
+        }
+
+        // Skor per level sampai level sekarang
+        buffer.putInt(level + 1);
+        for (int i = 0; i <= level && i < levelHighScores.length; i++) buffer.putInt(levelHighScores[i]);
+        for (int i = levelHighScores.length; i <= level; i++) buffer.putInt(0);
+
+        // Tubuh dari ekor ke kepala (urutan addHead saat dibaca)
+        buffer.putInt(body.length());
+        for (int i = body.length() - 1; i >= 0; i--) buffer.putInt(body.get(i));
+
+        // Urutan daftar sel kosong menentukan apel berikutnya
+        body.getOccupancy().writeFreeCells(buffer);
+    }
+
+    /**
+     * Method untuk mengembalikan state yang ditulis writeState()
+     * @param buffer Buffer sumber
+     */
+    public void readState(ByteBuffer buffer) {
+        tick = buffer.getLong();
+        random.setState(buffer.getLong());
+        headX = buffer.getInt();
+        headY = buffer.getInt();
+        targetLength = buffer.getInt();
+        direction = buffer.getChar();
+        appleX = buffer.getInt();
+        appleY = buffer.getInt();
+        appleType = buffer.getInt();
+        score = buffer.getInt();
+        lives = buffer.getInt();
+        level = buffer.getInt();
+        multiplier = buffer.getInt();
+        delay = buffer.getInt();
+        applesEaten = buffer.getInt();
+        specialApplesEaten = buffer.getInt();
+        effectType = buffer.getInt();
+        int flags = buffer.get();
+        speedBoosted = (flags & 1) != 0;
+        invincible = (flags & 2) != 0;
+        respawnPending = (flags & 4) != 0;
+        gameOver = (flags & 8) != 0;
+        moved = (flags & 16) != 0;
+        tailDropped = (flags & 32) != 0;
+        droppedTail = buffer.getInt();
+
+        effects.clear();
+        int active = buffer.getInt();
+        for (int type = APPLE_GOLDEN; type <= APPLE_BONUS; type++) {
+            if ((active & (1 << type)) != 0) effects.schedule(type, buffer.getLong());
+        }
+
+        int levels = buffer.getInt();
+        if (levelHighScores.length < levels) levelHighScores = new int[Integer.highestOneBit(levels) * 2];
+        Arrays.fill(levelHighScores, 0);
+        for (int i = 0; i < levels; i++) levelHighScores[i] = buffer.getInt();
+
+        body.clear();
+        for (int i = buffer.getInt(); i > 0; i--) {
+            int cell = buffer.getInt();
+            body.addHead(SnakeBody.cellX(cell), SnakeBody.cellY(cell));
+        }
+        body.getOccupancy().readFreeCells(buffer);
+        changes.markFull();
+    }
+
+    // Menyimpan state skalar sebelum tick ke slot rewind (tubuh ular tidak disalin)
+    private void saveRewindState(int slot) {
+        int[] ints = rewind.ints;
+        int i = slot * RewindBuffer.INTS;
+        ints[i++] = headX;
+        ints[i++] = headY;
+        ints[i++] = targetLength;
+        ints[i++] = direction;
+        ints[i++] = appleX;
+        ints[i++] = appleY;
+        ints[i++] = appleType;
+        ints[i++] = score;
+        ints[i++] = lives;
+        ints[i++] = level;
+        ints[i++] = multiplier;
+        ints[i++] = delay;
+        ints[i++] = applesEaten;
+        ints[i++] = specialApplesEaten;
+        ints[i++] = effectType;
+        ints[i++] = (speedBoosted ? 1 : 0) | (invincible ? 2 : 0);
+        ints[i++] = effects.getActive();
+        ints[i++] = getLevelHighScore(level + 1); // Satu-satunya entri yang bisa diubah levelUp() di tick ini
+        ints[i] = droppedTail;
+
+        long[] longs = rewind.longs;
+        int j = slot * RewindBuffer.LONGS;
+        longs[j++] = tick;
+        longs[j++] = random.getState();
+        for (int type = APPLE_GOLDEN; type <= APPLE_BONUS; type++) longs[j++] = effects.getExpiry(type);
+    }
+
+    /**
+     * Method untuk mundur beberapa tick (mode latihan).
+     * Tiap tick dibatalkan lewat delta tubuh (ekor dikembalikan, kepala dibuang),
+     * lalu state skalar diambil dari entri tick paling awal, jadi biayanya O(tick yang dibatalkan).
+     * @param ticks Jumlah tick yang ingin dibatalkan
+     * @return jumlah tick yang benar-benar dibatalkan (terbatas isi buffer)
+     */
+    public int rewind(int ticks) {
+        if (rewind == null) return 0;
+        int count = Math.min(ticks, rewind.size());
+        if (count == 0) return 0;
+
+        int slot = -1;
+        for (int n = 0; n < count; n++) {
+            slot = rewind.pop();
+            int tail = rewind.tails[slot];
+            if (tail != RewindBuffer.NO_TAIL) body.addTail(SnakeBody.cellX(tail), SnakeBody.cellY(tail));
+            body.removeHead();
+        }
+
+        int[] ints = rewind.ints;
+        int i = slot * RewindBuffer.INTS;
+        headX = ints[i++];
+        headY = ints[i++];
+        targetLength = ints[i++];
+        direction = (char) ints[i++];
+        appleX = ints[i++];
+        appleY = ints[i++];
+        appleType = ints[i++];
+        score = ints[i++];
+        lives = ints[i++];
+        level = ints[i++];
+        multiplier = ints[i++];
+        delay = ints[i++];
+        applesEaten = ints[i++];
+        specialApplesEaten = ints[i++];
+        effectType = ints[i++];
+        int flags = ints[i++];
+        speedBoosted = (flags & 1) != 0;
+        invincible = (flags & 2) != 0;
+        int active = ints[i++];
+        if (level + 1 < levelHighScores.length) levelHighScores[level + 1] = ints[i];
+        i++;
+        droppedTail = ints[i];
+
+        long[] longs = rewind.longs;
+        int j = slot * RewindBuffer.LONGS;
+        tick = longs[j++];
+        random.setState(longs[j++]);
+        effects.clear();
+        for (int type = APPLE_GOLDEN; type <= APPLE_BONUS; type++, j++) {
+            if ((active & (1 << type)) != 0) effects.schedule(type, longs[j]);
+        }
+
+        respawnPending = false; // Tick tabrakan ikut dibatalkan
+        gameOver = false;
+        moved = false; // Tidak ada interpolasi dari posisi sebelum rewind
+        tailDropped = false;
+        changes.markFull();
+        return count;
+    }
+
+    // Memasang buffer rewind (null = rewind mati); isi lama dibuang
+    public void setRewindBuffer(RewindBuffer rewind) {
+        this.rewind = rewind;
+        if (rewind != null) rewind.clear();
+    }
+
+    // Memasang perekam replay (null = berhenti merekam); dipanggil di thread pemilik engine
+    public void setRecorder(ReplayRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    // Getter
+    public int getCols() { return cols; }
+    public int getRows() { return rows; }
+    public SnakeBody getBody() { return body; }
+    public ChangeSet getChanges() { return changes; }
+    public int getHeadX() { return headX; }
+    public int getHeadY() { return headY; }
+    public int getLength() { return targetLength; }
+    public char getDirection() { return direction; }
+    public boolean hasApple() { return appleX >= 0; }
+    public int getAppleX() { return appleX; }
+    public int getAppleY() { return appleY; }
+    public int getAppleType() { return appleType; }
+    public int getScore() { return score; }
+    public int getLives() { return lives; }
+    public int getLevel() { return level; }
+    public int getMultiplier() { return multiplier; }
+    public int getDelay() { return delay; }
+    public int getApplesEaten() { return applesEaten; }
+    public int getSpecialApplesEaten() { return specialApplesEaten; }
+    public boolean isSpeedBoosted() { return speedBoosted; }
+    public boolean isInvincible() { return invincible; }
+    public int getEffectType() { return effectType; }
+    public EffectScheduler getEffects() { return effects; }
+    public boolean isRespawnPending() { return respawnPending; }
+    public boolean isGameOver() { return gameOver; }
+    public long getTick() { return tick; }
+    public boolean hasMoved() { return moved; }
+    public boolean isTailDropped() { return tailDropped; }
+    public int getDroppedTail() { return droppedTail; }
+    public GameRandom getRandom() { return random; }
+    public ReplayRecorder getRecorder() { return recorder; }
+    public RewindBuffer getRewindBuffer() { return rewind; }
+
+    public int getLevelHighScore(int level) {
+        return level < levelHighScores.length ? levelHighScores[level] : 0;
+    }
+}
@@ -1,10 +1,26 @@
 package game;
 
 import javax.swing.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 public class GameFrame extends JFrame {
+    private static final long serialVersionUID = 1L;
     public GameFrame() {
-        this.add(new GamePanel());
+        // Mode arena (-Dsnake.arena=1000 -Dsnake.arena.apples=10000) atau permainan biasa
+        int arenaSnakes = Integer.getInteger("snake.arena", 0);
+        if (arenaSnakes > 0) this.add(new ArenaPanel(arenaSnakes, Integer.getInteger("snake.arena.apples", arenaSnakes * 10)));
+        else {
+            GamePanel panel = new GamePanel();
+            this.add(panel);
+            // Permainan yang sedang berjalan disimpan sebelum keluar, bisa dilanjutkan dari menu
+            this.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosing(WindowEvent e) {
+                    panel.saveOnExit();
+                }
+            });
+        }
         this.setTitle("Snake Game");
         this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         this.setResizable(false);
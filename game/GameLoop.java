@@ -0,0 +1,171 @@
+package game;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Game loop dengan timestep tetap di thread sendiri.
+ * Hanya thread ini yang menyentuh GameEngine; thread lain mengirim perubahan lewat execute().
+ * Setiap tick hasilnya disalin ke FrameState dan diserahkan ke EDT lewat triple buffer lock-free.
+ */
+public class GameLoop implements Runnable {
+    // Dipanggil di thread loop saat step() menghasilkan event
+    public interface Listener {
+        void onEvents(int events, GameEngine engine);
+    }
+
+    private static final int MAX_CATCH_UP = 5; // Maksimal tick susulan sebelum sisa keterlambatan dibuang
+    private static final long SPIN_NANOS = 200_000L; // Sisa waktu terakhir ditunggu dengan spin agar presisi
+    private static final int FRESH = 4; // Bit penanda frame baru di published
+
+    private final GameEngine engine;
+    private final Listener listener;
+    private final InputQueue inputs; // Arah dari keyboard, diambil satu per tick
+    private volatile Autopilot autopilot; // null jika dikendalikan keyboard
+    private final FrameState[] frames = {new FrameState(), new FrameState(), new FrameState()};
+    private final AtomicInteger published = new AtomicInteger(1); // Index frame tengah + bit FRESH
+    private int backIndex = 0; // Frame yang sedang diisi (thread loop)
+    private int frontIndex = 2; // Frame yang sedang digambar (EDT)
+
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Runnable> afterPublish = new ConcurrentLinkedQueue<>(); // Hanya thread loop
+    private volatile boolean paused = true;
+    private volatile boolean running = true;
+    private Thread thread;
+
+    public GameLoop(GameEngine engine, InputQueue inputs, Listener listener) {
+        this.engine = engine;
+        this.inputs = inputs;
+        this.listener = listener;
+    }
+
+    public void start() {
+        thread = new Thread(this, "game-loop");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+        if (!paused) LockSupport.unpark(thread);
+    }
+
+    /**
+     * Method untuk memasang / melepas autopilot. Selama terpasang, thread loop yang mengisi InputQueue
+     * (KeyHandler tidak menulis arah), jadi antrian tetap punya satu penulis.
+     * Setelah loop berjalan, panggil lewat execute() supaya pergantian terjadi di antara dua tick.
+     * @param autopilot Autopilot, atau null untuk kembali ke keyboard
+     */
+    public void setAutopilot(Autopilot autopilot) {
+        this.autopilot = autopilot;
+    }
+
+    // Autopilot yang terpasang: selama tidak null, thread loop yang menulis InputQueue
+    public Autopilot getAutopilot() {
+        return autopilot;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    // Menjalankan perubahan engine di thread loop (juga saat pause), lalu frame baru diterbitkan
+    public void execute(Runnable task) {
+        tasks.add(task);
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Method untuk menjalankan perubahan engine di thread loop, lalu published setelah frame hasilnya diterbitkan
+     * (mis. untuk menggambar saat loop pause dan renderTimer berhenti)
+     * @param task Perubahan engine
+     * @param published Dijalankan di thread loop setelah publish
+     */
+    public void execute(Runnable task, Runnable published) {
+        execute(() -> {
+            task.run();
+            afterPublish.add(published);
+        });
+    }
+
+    /**
+     * Mengambil frame terbaru untuk digambar (hanya dipanggil dari EDT)
+     * @return frame terbaru yang sudah selesai diisi
+     */
+    public FrameState acquireFrame() {
+        if ((published.get() & FRESH) != 0) {
+            frontIndex = published.getAndSet(frontIndex) & 3;
+        }
+        return frames[frontIndex];
+    }
+
+    @Override
+    public void run() {
+        long next = System.nanoTime();
+        while (running) {
+            if (runTasks()) {
+                publish(System.nanoTime(), 0);
+                Runnable done;
+                while ((done = afterPublish.poll()) != null) done.run();
+            }
+
+            if (paused) {
+                LockSupport.park(this);
+                next = System.nanoTime(); // Setelah pause, mulai hitung dari sekarang
+                continue;
+            }
+
+            long now = System.nanoTime();
+            long wait = next - now;
+            if (wait > 0) {
+                if (wait > SPIN_NANOS) LockSupport.parkNanos(this, wait - SPIN_NANOS);
+                else Thread.onSpinWait();
+                continue;
+            }
+
+            // Jalankan tick yang tertinggal (catch-up), maksimal MAX_CATCH_UP sekaligus
+            int ticks = 0;
+            while (next <= now && ticks < MAX_CATCH_UP && !paused && running) {
+                long tickTime = next;
+                Autopilot pilot = autopilot;
+                if (pilot != null) inputs.offer(pilot.decide(engine)); // Jalur input yang sama dengan keyboard
+                int events = engine.step(inputs.poll(engine.getDirection()));
+                engine.getChanges().clear(); // Mode loop selalu menggambar penuh
+                long duration = engine.getDelay() * 1_000_000L;
+                next += duration;
+                publish(tickTime, duration);
+                ticks++;
+
+                if (events != 0) {
+                    // Kehilangan nyawa / game over: loop berhenti sampai UI melanjutkan
+                    if ((events & (GameEngine.EVENT_LIFE_LOST | GameEngine.EVENT_GAME_OVER)) != 0) paused = true;
+                    listener.onEvents(events, engine);
+                }
+            }
+            if (next <= now) next = now; // Terlalu tertinggal: buang sisa, jangan menyusul terus
+        }
+    }
+
+    private boolean runTasks() {
+        boolean ran = false;
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+            ran = true;
+        }
+        return ran;
+    }
+
+    // Menyalin engine ke frame belakang lalu menukarnya ke posisi tengah
+    private void publish(long tickNanos, long durationNanos) {
+        frames[backIndex].copyFrom(engine, tickNanos, durationNanos);
+        backIndex = published.getAndSet(backIndex | FRESH) & 3;
+    }
+}
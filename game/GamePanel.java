@@ -3,31 +3,79 @@ package game;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.HashMap;
-import java.util.Map;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 
 // Kelas utama yang mengatur logika permainan dan tampilan
 public class GamePanel extends JPanel implements ActionListener {
+    private static final long serialVersionUID = 1L;
+    private static final int VIEW_CELLS = 20; // Viewport arena 20x20 sel (500x500 piksel)
+    private static final int MIN_BOARD = 20, MAX_BOARD = 4096; // Batas ukuran papan per sisi
+
+    // Ukuran papan (-Dsnake.board=200x200); jika lebih besar dari viewport, kamera mengikuti ular
+    private final int boardCols = boardSize(0, MIN_BOARD), boardRows = boardSize(1, MIN_BOARD);
+    private final boolean scrolling = boardCols > VIEW_CELLS || boardRows > VIEW_CELLS;
+    private final Camera camera = new Camera(boardCols, boardRows, VIEW_CELLS, VIEW_CELLS);
+
     // Objek permainan
-    private Snake snake; // Objek ular
+    private GameEngine engine; // Simulasi permainan (aturan, skor, nyawa, level)
+    private Snake snake; // Objek ular (menggambar tubuh dari engine)
     private Apple apple; // Objek apel
+
+    // Mode game loop (-Dsnake.gameLoop=true): tick di thread sendiri, gambar diinterpolasi
+    private final boolean useGameLoop = Boolean.getBoolean("snake.gameLoop");
+    // Mode latihan (-Dsnake.practice=true): BACKSPACE mundur sampai 30 detik, skor tidak dicatat
+    private final boolean practiceMode = Boolean.getBoolean("snake.practice");
+    private static final String REWIND_HINT = "BACKSPACE: Rewind";
+    // Autopilot (-Dsnake.autopilot=true, tombol A saat bermain): ular bermain sendiri lewat InputQueue yang sama
+    private Autopilot autopilot;
+    private boolean autopilotOn = Boolean.getBoolean("snake.autopilot");
+    private boolean autopilotPlayed; // Game ini pernah dimainkan autopilot: skor tidak masuk highscore
+    private boolean keyboardInput = !autopilotOn; // KeyHandler boleh menulis arah (antrian hanya punya satu penulis)
+    private int autopilotSwitches; // Pergantian autopilot yang diminta EDT, untuk menyerahkan keyboard di mode loop
+    private GameLoop gameLoop; // null jika memakai gameTimer Swing
+    private Timer renderTimer; // Repaint sesuai refresh rate layar (mode game loop)
+
+    // Active rendering (-Dsnake.render=active, F3 saat bermain): Canvas + BufferStrategy, bukan repaint Swing
+    private boolean activeRendering = "active".equals(System.getProperty("snake.render"))
+        && !GraphicsEnvironment.isHeadless();
+    private ActiveRenderer activeRenderer;
+    // -Dsnake.renderStats=true: rata-rata waktu frame mode lama dicetak ke konsol saat F3
+    private final boolean renderStats = Boolean.getBoolean("snake.renderStats");
+    private long frameNanos; // Total waktu gambar sejak mode terakhir dipilih
+    private int frameCount;
     
     // Timers
     private Timer gameTimer;  // Timer utama permainan
-    private Timer respawnTimer; // Timer untuk respawn setelah mati
-    private Timer effectTimer; // Timer untuk efek khusus
+    private Timer respawnTimer; // Hitung mundur per detik (respawn dan lanjut otomatis setelah game over)
     
-    // Game state
-    private int score = 0; // Skor pemain
-    private int lives = 3; // Nyawa pemain
-    private int level = 1; // Level saat ini
-    private int multiplier = 1; // Multiplier skor
-    private char direction = 'R'; // Arah gerakan ular (U=atas, D=bawah, L=kiri, R=kanan)
+    // Game state (skor, nyawa, level, dll. ada di engine)
+    private final InputQueue inputs = new InputQueue(); // Arah dari keyboard (U/D/L/R), satu per tick
+    // -Dsnake.inputStats=true: latensi tombol sampai ular berbelok dicetak ke konsol setiap game over
+    private final boolean inputStats = Boolean.getBoolean("snake.inputStats");
+    private ReplayRecorder replayRecorder; // null di mode latihan
     private boolean isRunning = false; // Status apakah permainan sedang berjalan
     private boolean isPaused = false; // Status apakah permainan sedang dijeda
     private boolean isRespawning = false;
-    private boolean isSpeedBoosted = false;
-    private boolean isInvincible = false;
+
+    // Overlay di atas arena (pengganti dialog modal): thread gambar dan simulasi tidak pernah tertahan
+    private static final int OVERLAY_NONE = 0;
+    private static final int OVERLAY_LIFE_LOST = 1;
+    private static final int OVERLAY_GAME_OVER = 2;
+    private static final int RESPAWN_SECONDS = 1; // Sama dengan jeda respawn sebelum overlay (1 detik)
+    private static final Path LAST_REPLAY = Paths.get("lastgame.replay");
+    private static final Path HIGHSCORE_REPLAY = Paths.get("highscore.replay");
+    // -Dsnake.autoContinue=N: main lagi otomatis N detik setelah game over (0 = tunggu tombol)
+    private final int autoContinueSeconds = Math.max(0, Integer.getInteger("snake.autoContinue", 0));
+    private int overlay = OVERLAY_NONE;
+    private int countdown; // Detik tersisa di overlay
+    private String overlayTitle = "";
+    private String[] overlayLines = new String[0]; // Dibuat saat state berubah, bukan per frame
+    private String overlayHint = "";
     
     // Theme colors
     private Color bgColor = new Color(240, 240, 240); // Warna background
@@ -37,17 +85,41 @@ public class GamePanel extends JPanel implements ActionListener {
     private Color panelColor = new Color(250, 250, 250); // Warna panel
     private Color borderColor = new Color(200, 200, 200); // Warna border
 
+    // Objek gambar yang dipakai setiap frame (dibuat sekali, bukan per frame)
+    private static final Font HUD_FONT = new Font("Courier", Font.BOLD, 16);
+    private static final Font LEVEL_UP_FONT = new Font("Courier", Font.BOLD, 25);
+    private static final Font PAUSE_FONT = new Font("Courier", Font.BOLD, 48);
+    private static final Font PAUSE_HINT_FONT = new Font("Courier", Font.PLAIN, 18);
+    private static final BasicStroke BORDER_STROKE = new BasicStroke(3);
+    private static final BasicStroke GRID_STROKE = new BasicStroke(1);
+    private static final BasicStroke HUD_STROKE = new BasicStroke(2);
+    private static final Color GRID_COLOR = new Color(230, 230, 230);
+    private static final Color SPEED_COLOR = new Color(70, 130, 180);
+    private static final Color INVINCIBLE_COLOR = new Color(220, 50, 50);
+    private static final Color HEART_COLOR = new Color(220, 50, 50);
+    private static final Color HEART_BORDER_COLOR = new Color(180, 40, 40);
+    private static final Color PAUSE_OVERLAY_COLOR = new Color(0, 0, 0, 150);
+
+    private static final int HEART_PADDING = 3; // Ruang untuk garis tepi icon nyawa di sprite
+    private static final String SPEED_TEXT = "SPEED BOOST!";
+    private static final String INVINCIBLE_TEXT = "INVINCIBLE!";
+    private static final String AUTOPILOT_TEXT = "AUTOPILOT (A)";
+
+    // Layer statis (background, arena, grid, panel HUD) yang dirender sekali per tema/ukuran
+    private BufferedImage boardLayer;
+    private BufferedImage heartSprite; // Icon nyawa, dirender sekali
+
+    // Teks HUD terakhir beserta nilai dan lebarnya
+    private int hudScore = -1, hudHighScore = -1, hudLevel = -1, hudMultiplier = -1;
+    private String scoreText, highScoreText, levelText, multiplierText;
+    private int multiplierWidth, speedWidth = -1, invincibleWidth, autopilotWidth;
+
     // UI Components
     private JButton playButton; // Tombol mulai permainan
     private JButton themeButton; // Tombol pilih tema
     private JButton exitButton;// Tombol keluar
     private JButton[] themeButtons; // Array tombol pilihan tema
     
-    // Statistics
-    private Map<Integer, Integer> levelHighScores = new HashMap<>(); // Highscore per level
-    private int applesEaten = 0; // Total apel normal yang dimakan
-    private int specialApplesEaten = 0; // Total apel spesial yang dimakan
-
     private String levelUpText = "";
     private long levelUpStartTime = 0;
 
@@ -67,27 +139,218 @@ public class GamePanel extends JPanel implements ActionListener {
 
     //Method untuk inisialisasi objek-objek permainan
     private void initializeGame() {
-        // Membuat ular di posisi awal (125,125) dengan warna snakeColor
-        snake = new Snake(125, 125, snakeColor);
+        // Engine dengan seed acak; ular mulai di posisi awal (125,125)
+        engine = new GameEngine(boardCols, boardRows, System.nanoTime());
+        if (practiceMode) {
+            engine.setRewindBuffer(new RewindBuffer()); // Replay tidak direkam: rewind mengubah jalannya game
+        } else {
+            replayRecorder = new ReplayRecorder(); // Setiap game direkam (seed + perubahan arah)
+        }
+        // Membuat tampilan ular dengan warna snakeColor
+        snake = new Snake(engine.getBody(), snakeColor);
         // Membuat apel pertama dengan warna appleColor
         apple = new Apple(appleColor);
+        autopilot = new Autopilot(boardCols, boardRows);
+        syncView();
         // Timer utama dengan delay 150ms yang memanggil actionPerformed
         gameTimer = new Timer(150, this);
-        // Timer untuk respawn setelah mati (1000ms = 1 detik)
-        respawnTimer = new Timer(1000, e -> {
-            isRespawning = false; // Reset status respawn
-            respawnTimer.stop(); // Hentikan timer
-            gameTimer.start(); // Mulai kembali timer utama
-        });
+        // Timer hitung mundur overlay (1000ms = 1 detik)
+        respawnTimer = new Timer(1000, e -> countdownTick());
         
-        // Timer untuk efek khusus (5000ms = 5 detik)
-        effectTimer = new Timer(5000, e -> {
-            isSpeedBoosted = false;
-            isInvincible = false;
-            multiplier = 1;
-            snake.setEffectColor(null); // Hapus efek warna pada ular
-            effectTimer.stop(); // Hentikan timer efek
-        });
+        if (useGameLoop) {
+            // Engine hanya disentuh thread loop; event diteruskan ke EDT
+            gameLoop = new GameLoop(engine, inputs, (events, loopEngine) -> {
+                int level = loopEngine.getLevel();
+                SwingUtilities.invokeLater(() -> handleEvents(events, level));
+            });
+            if (autopilotOn) gameLoop.setAutopilot(autopilot);
+            gameLoop.start();
+            renderTimer = new Timer(1000 / displayRefreshRate(), e -> requestRender());
+        }
+        activeRenderer = new ActiveRenderer(this);
+    }
+
+    /**
+     * Method untuk membaca ukuran papan dari -Dsnake.board (contoh "200x200" atau "200")
+     * @param axis 0 = kolom, 1 = baris
+     * @param defaultSize Ukuran jika tidak diatur atau tidak valid
+     * @return jumlah sel, dibatasi MIN_BOARD..MAX_BOARD
+     */
+    static int boardSize(int axis, int defaultSize) {
+        String[] parts = System.getProperty("snake.board", "").toLowerCase().split("x");
+        try {
+            int size = Integer.parseInt(parts[Math.min(axis, parts.length - 1)].trim());
+            return Math.max(MIN_BOARD, Math.min(MAX_BOARD, size));
+        } catch (NumberFormatException e) {
+            return defaultSize;
+        }
+    }
+
+    // Refresh rate layar (Hz), 60 jika tidak diketahui
+    private static int displayRefreshRate() {
+        if (GraphicsEnvironment.isHeadless()) return 60;
+        int rate = GraphicsEnvironment.getLocalGraphicsEnvironment()
+            .getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+        return rate == DisplayMode.REFRESH_RATE_UNKNOWN ? 60 : rate;
+    }
+
+    // Menjalankan perubahan engine di thread yang memilikinya (thread loop atau EDT)
+    private void onEngine(Runnable task) {
+        if (gameLoop != null) gameLoop.execute(task);
+        else task.run();
+    }
+
+    /**
+     * Method untuk menyimpan permainan yang sedang berjalan (dipanggil saat jendela ditutup).
+     * Snapshot diambil di thread pemilik engine, file ditulis di thread pemanggil.
+     */
+    void saveOnExit() {
+        if (!isRunning || overlay == OVERLAY_GAME_OVER || practiceMode) return;
+        int flags = autopilotPlayed ? SaveGame.FLAG_AUTOPILOT : 0;
+        try {
+            ByteBuffer snapshot;
+            if (gameLoop == null) {
+                snapshot = SaveGame.encode(engine, flags);
+            } else {
+                FutureTask<ByteBuffer> task = new FutureTask<>(() -> SaveGame.encode(engine, flags));
+                gameLoop.execute(task);
+                snapshot = task.get(1, TimeUnit.SECONDS);
+            }
+            SaveGame.write(snapshot, SaveGame.FILE);
+        } catch (Exception e) {
+            System.out.println("Failed to save game");
+        }
+    }
+
+    /**
+     * Method untuk melanjutkan permainan yang disimpan (dari menu CONTINUE).
+     * Permainan dimulai dalam keadaan pause supaya pemain siap dulu.
+     */
+    private void resumeGame() {
+        ByteBuffer state = SaveGame.read(SaveGame.FILE, boardCols, boardRows);
+        SaveGame.delete(); // Snapshot hanya bisa dipakai sekali
+        if (state == null) {
+            startGame(); // Snapshot rusak, versi lama, atau ukuran papan lain
+            return;
+        }
+        autopilotPlayed = autopilotOn || (state.getInt() & SaveGame.FLAG_AUTOPILOT) != 0;
+
+        isRunning = true;
+        respawnTimer.stop();
+        isRespawning = false;
+        overlay = OVERLAY_NONE;
+        Runnable restore = () -> {
+            engine.readState(state);
+            if (engine.isRespawnPending()) engine.respawn(); // Disimpan saat hitung mundur respawn
+            engine.setRecorder(null); // Game lanjutan tidak bisa diputar ulang dari seed
+        };
+        if (gameLoop == null) {
+            restore.run();
+            inputs.reset(engine.getDirection()); // Arah ular hasil snapshot, bukan arah game sebelumnya
+            syncView();
+            gameTimer.setDelay(engine.getDelay());
+        } else {
+            // Loop sedang pause (renderTimer berhenti): gambar setelah frame hasil snapshot diterbitkan
+            gameLoop.execute(() -> {
+                restore.run();
+                resetInputsFromLoop(engine.getDirection());
+            }, () -> SwingUtilities.invokeLater(this::requestRender));
+        }
+        if (activeRendering) attachCanvas();
+        isPaused = true; // ESC untuk lanjut
+        requestFocus();
+        if (gameLoop == null) requestRender();
+    }
+
+    // Menggambar frame: langsung lewat BufferStrategy (active) atau dijadwalkan ke Swing (passive)
+    private void requestRender() {
+        if (activeRendering) activeRenderer.render();
+        else repaint();
+    }
+
+    // Mencatat waktu satu frame untuk perbandingan passive vs active
+    void recordFrame(long nanos) {
+        frameNanos += nanos;
+        frameCount++;
+    }
+
+    // Memasang / melepas canvas active rendering sesuai mode saat ini
+    private void attachCanvas() {
+        Canvas canvas = activeRenderer.getCanvas();
+        if (activeRendering && canvas.getParent() != this) add(canvas, BorderLayout.CENTER);
+        else if (!activeRendering && canvas.getParent() == this) remove(canvas);
+        revalidate();
+    }
+
+    // Ganti mode gambar saat bermain (F3)
+    private void toggleRendering() {
+        if (GraphicsEnvironment.isHeadless()) return;
+        if (renderStats && frameCount > 0) {
+            System.out.printf("[render] %s: %.1f us/frame (%d frames)%n",
+                activeRendering ? "active" : "passive", frameNanos / 1000.0 / frameCount, frameCount);
+        }
+        frameNanos = 0;
+        frameCount = 0;
+        activeRendering = !activeRendering;
+        attachCanvas();
+        repaint();
+        requestRender();
+    }
+
+    // Mengosongkan antrian input oleh penulisnya; di mode loop setelah perubahan engine yang sudah dikirim
+    private void resetInputs(char direction) {
+        if (gameLoop == null) inputs.reset(direction);
+        else gameLoop.execute(() -> resetInputsFromLoop(direction));
+    }
+
+    // Mengosongkan antrian input dari thread loop, oleh penulis antrian saat ini:
+    // thread loop selama autopilot terpasang, selain itu EDT (KeyHandler)
+    private void resetInputsFromLoop(char direction) {
+        if (gameLoop.getAutopilot() != null) inputs.reset(direction);
+        else SwingUtilities.invokeLater(() -> inputs.reset(direction));
+    }
+
+    // Menyalakan / mematikan autopilot di tengah permainan
+    private void toggleAutopilot() {
+        autopilotOn = !autopilotOn;
+        if (autopilotOn) autopilotPlayed = true;
+        if (gameLoop == null) {
+            keyboardInput = !autopilotOn; // Timer EDT: autopilot dan keyboard di thread yang sama
+        } else {
+            if (autopilotOn) keyboardInput = false; // Keyboard berhenti sebelum thread loop mulai menulis
+            // Thread loop mungkin sedang di tengah decide/offer: ganti di antara dua tick,
+            // keyboard baru menulis lagi setelah thread loop melepas autopilot
+            Autopilot pilot = autopilotOn ? autopilot : null;
+            int switchId = ++autopilotSwitches;
+            gameLoop.execute(() -> {
+                gameLoop.setAutopilot(pilot);
+                if (pilot == null) {
+                    SwingUtilities.invokeLater(() -> {
+                        if (switchId == autopilotSwitches) keyboardInput = true; // Tidak ada pergantian yang lebih baru
+                    });
+                }
+            });
+        }
+        requestRender(); // Indikator HUD
+    }
+
+    // Menjalankan / menghentikan tick permainan
+    private void startTicking() {
+        if (gameLoop != null) {
+            gameLoop.setPaused(false);
+            renderTimer.start();
+        } else {
+            gameTimer.start();
+        }
+    }
+
+    private void stopTicking() {
+        if (gameLoop != null) {
+            gameLoop.setPaused(true);
+            renderTimer.stop();
+        } else {
+            gameTimer.stop();
+        }
     }
 
     //Method untuk membuat menu awal permainan
@@ -118,6 +381,7 @@ public class GamePanel extends JPanel implements ActionListener {
         // Menambahkan action listener untuk tombol play
         playButton.addActionListener(e -> {
             removeAll(); // Hapus menu
+            SaveGame.delete(); // Game baru menggantikan game yang disimpan
             startGame(); // Mulai permainan
         });
 
@@ -126,6 +390,17 @@ public class GamePanel extends JPanel implements ActionListener {
         // Menambahkan action listener untuk tombol exit
         exitButton.addActionListener(e -> System.exit(0));
 
+        // Ada permainan yang disimpan saat jendela ditutup
+        if (SaveGame.exists()) {
+            JButton continueButton = createMenuButton("CONTINUE", new Color(100, 150, 100));
+            continueButton.addActionListener(e -> {
+                removeAll();
+                resumeGame();
+            });
+            menuPanel.add(continueButton);
+            menuPanel.add(Box.createRigidArea(new Dimension(0, 25)));
+        }
+
         menuPanel.add(playButton);
         menuPanel.add(Box.createRigidArea(new Dimension(0, 40))); // Spacer lebih besar
         
@@ -263,19 +538,26 @@ public class GamePanel extends JPanel implements ActionListener {
     /**
      * Method untuk memulai permainan
      */
-    private void startGame() {
+    void startGame() {
         isRunning = true; // Set status permainan berjalan
-        score = 0;
-        lives = 3;
-        level = 1;
-        applesEaten = 0;
-        specialApplesEaten = 0;
-        snake = new Snake(125, 125, snakeColor);
-        apple = new Apple(appleColor);
-        direction = 'R';
-        gameTimer.setDelay(150);
-        gameTimer.start();
+        respawnTimer.stop();
+        isRespawning = false;
+        isPaused = false;
+        overlay = OVERLAY_NONE;
+        autopilotPlayed = autopilotOn;
+        onEngine(() -> {
+            engine.setRecorder(replayRecorder); // Dilepas saat melanjutkan game yang disimpan
+            engine.reset(); // Skor, nyawa, level, ular dan apel kembali ke awal
+        });
+        resetInputs('R');
+        if (gameLoop == null) {
+            syncView();
+            gameTimer.setDelay(engine.getDelay());
+        }
+        if (activeRendering) attachCanvas();
+        startTicking();
         requestFocus();
+        requestRender(); // Frame pertama selalu digambar penuh
     }
 
      /**
@@ -284,73 +566,73 @@ public class GamePanel extends JPanel implements ActionListener {
      */
     @Override
     protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        
-        Graphics2D g2d = (Graphics2D) g;
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        
-        if (!isRunning) return;
+        if (!isRunning) {
+            super.paintComponent(g);
+            return;
+        }
+        if (activeRendering) return; // Arena digambar ActiveRenderer di canvas
+        long start = System.nanoTime();
 
-        // Draw game area with border
-        g2d.setColor(panelColor);
-        g2d.fillRect(50, 50, 500, 500); // Area permainan 500x500 di posisi (50,50)
-        g2d.setColor(borderColor);
-        g2d.setStroke(new BasicStroke(3)); // Ketebalan border 3px
-        g2d.drawRoundRect(50, 50, 500, 500, 10, 10); // Border dengan sudut melengkung
+        Graphics2D g2d = (Graphics2D) g;
 
-        // Gambar grid (samar)
-        g2d.setColor(new Color(230, 230, 230));
-        g2d.setStroke(new BasicStroke(1)); 
-        // Gambar garis vertikal dan horizontal setiap 25px
-        for (int i = 0; i <= 500; i += 25) {
-            g2d.drawLine(50 + i, 50, 50 + i, 550);
-            g2d.drawLine(50, 50 + i, 550, 50 + i);
+        // Background, arena, grid dan panel HUD cukup di-blit sekali dari layer statis
+        if (boardLayer == null || boardLayer.getWidth() != getWidth() || boardLayer.getHeight() != getHeight()) {
+            boardLayer = createBoardLayer(getWidth(), getHeight());
         }
+        g2d.drawImage(boardLayer, 0, 0, null);
+        renderGame(g2d);
 
-        // Gambar elemen permainan
-        snake.draw(g2d);
-        apple.draw(g2d);
+        if (gameLoop != null) Toolkit.getDefaultToolkit().sync(); // Kurangi latensi tampil di Linux
+        recordFrame(System.nanoTime() - start);
+    }
 
-        /// Gambar panel UI di bagian bawah
-        g2d.setColor(panelColor);
-        g2d.fillRect(0, 560, getWidth(), 90);
-        g2d.setColor(borderColor);
-        g2d.setStroke(new BasicStroke(2));
-        g2d.drawLine(0, 560, getWidth(), 560);
+    /**
+     * Method untuk menggambar isi permainan di atas layer papan (dipakai kedua mode gambar)
+     * @param g2d Graphics context
+     */
+    void renderGame(Graphics2D g2d) {
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-        // Gambar info permainan
-        g2d.setFont(new Font("Courier", Font.BOLD, 16)); // Font info
-        
-        // Info di sisi kiri
-        g2d.setColor(textColor);
-        g2d.drawString("Score: " + score, 60, 585);
-        g2d.drawString("Highscore: " + ScoreManager.getHighScore(), 60, 610);
-        g2d.drawString("Level: " + level, 60, 635);
-        
-        // Info di sisi kanan
-        String multiplierText = "Multiplier: x" + multiplier;
-        int multiplierWidth = g2d.getFontMetrics().stringWidth(multiplierText);
-        g2d.drawString(multiplierText, getWidth() - multiplierWidth - 60, 585);
-        
-        // Jika speed boost aktif, tampilkan indikator
-        if (isSpeedBoosted) {
-            String speedText = "SPEED BOOST!";
-            int speedWidth = g2d.getFontMetrics().stringWidth(speedText);
-            g2d.setColor(new Color(70, 130, 180));
-            g2d.drawString(speedText, getWidth() - speedWidth - 60, 610);
-        }
-        
-        // Jika invincible aktif, tampilkan indikator
-        if (isInvincible) {
-            String invincibleText = "INVINCIBLE!";
-            int invincibleWidth = g2d.getFontMetrics().stringWidth(invincibleText);
-            g2d.setColor(new Color(220, 50, 50));
-            g2d.drawString(invincibleText, getWidth() - invincibleWidth - 60, 635);
+        // Papan lebih besar dari viewport: dunia digeser sesuai kamera dan dipotong di tepi arena,
+        // sehingga segmen di luar viewport dilewati oleh cek clip di Snake
+        Graphics2D world = g2d;
+        if (scrolling) {
+            world = (Graphics2D) g2d.create();
+            world.clipRect(Snake.BOARD_OFFSET, Snake.BOARD_OFFSET,
+                VIEW_CELLS * Snake.CELL_SIZE, VIEW_CELLS * Snake.CELL_SIZE);
         }
 
-        drawHearts(g2d); // Gambar indikator nyawa
+        if (gameLoop != null) {
+            // Mode game loop: gambar dari snapshot terbaru, posisi ular diinterpolasi antar tick
+            FrameState frame = gameLoop.acquireFrame();
+            double alpha = interpolationAlpha(frame);
+            if (scrolling) {
+                // Kamera ikut diinterpolasi agar tidak melompat satu sel per tick
+                int head = frame.cells[0], previous = frame.previousCell(0);
+                world.translate(
+                    -lerp(camera.originX(SnakeBody.cellX(previous)), camera.originX(SnakeBody.cellX(head)), alpha),
+                    -lerp(camera.originY(SnakeBody.cellY(previous)), camera.originY(SnakeBody.cellY(head)), alpha));
+            }
+            snake.setEffectColor(effectColor(frame.effectType));
+            snake.drawInterpolated(world, frame, alpha);
+            apple.place(Snake.toPixel(frame.appleX), Snake.toPixel(frame.appleY), frame.appleType);
+            if (frame.appleX >= 0) apple.draw(world); // Tidak ada apel jika arena penuh
+            if (scrolling) world.dispose();
+            drawHud(g2d, frame.score, frame.level, frame.multiplier, frame.speedBoosted, frame.invincible);
+            drawHearts(g2d, frame.lives);
+        } else {
+            // Gambar elemen permainan
+            if (scrolling) world.translate(-camera.getX() * Snake.CELL_SIZE, -camera.getY() * Snake.CELL_SIZE);
+            snake.draw(world);
+            if (engine.hasApple()) apple.draw(world);
+            if (scrolling) world.dispose();
+            drawHud(g2d, engine.getScore(), engine.getLevel(), engine.getMultiplier(),
+                    engine.isSpeedBoosted(), engine.isInvincible());
+            drawHearts(g2d, engine.getLives()); // Gambar indikator nyawa
+        }
 
         if (isPaused) drawPauseScreen(g2d); // Jika dijeda, gambar layar pause
+        if (overlay != OVERLAY_NONE) drawOverlay(g2d); // Nyawa hilang / game over
     
         // Tampilkan notifikasi level up jika aktif
         if (!levelUpText.isEmpty()) {
@@ -358,7 +640,7 @@ public class GamePanel extends JPanel implements ActionListener {
             if (elapsed < 2500) { // Tampilkan selama 2.5 detik
                 g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER));
                 g2d.setColor(Color.GREEN);
-                g2d.setFont(new Font("Courier", Font.BOLD, 25));
+                g2d.setFont(LEVEL_UP_FONT);
                 FontMetrics fm = g2d.getFontMetrics();
                 int textWidth = fm.stringWidth(levelUpText);
                 g2d.drawString(levelUpText, (getWidth() - textWidth) / 2, getHeight() / 4);
@@ -367,19 +649,160 @@ public class GamePanel extends JPanel implements ActionListener {
                 levelUpText = ""; // Reset setelah selesai
             }
         }
+    }
+
+    // Posisi kamera dalam piksel di antara dua tick
+    private static double lerp(int fromCell, int toCell, double alpha) {
+        return (fromCell + (toCell - fromCell) * alpha) * Snake.CELL_SIZE;
+    }
+
+    // Progres antara tick terakhir dan tick berikutnya (0..1) untuk interpolasi
+    private double interpolationAlpha(FrameState frame) {
+        if (!frame.moved || frame.tickDurationNanos <= 0 || isPaused) return 1;
+        double alpha = (double) (System.nanoTime() - frame.tickNanos) / frame.tickDurationNanos;
+        return Math.max(0, Math.min(1, alpha));
+    }
+
+    /**
+     * Method untuk menggambar info permainan di panel bawah
+     * @param g2d Graphics context
+     */
+    private void drawHud(Graphics2D g2d, int score, int level, int multiplier, boolean speedBoosted, boolean invincible) {
+        // Gambar info permainan
+        g2d.setFont(HUD_FONT); // Font info
 
-    }    /**
+        // Teks dan lebarnya dibuat ulang hanya saat nilainya berubah (frame biasa tanpa alokasi)
+        if (score != hudScore) {
+            hudScore = score;
+            scoreText = "Score: " + score;
+        }
+        int highScore = ScoreManager.getHighScore();
+        if (highScore != hudHighScore) {
+            hudHighScore = highScore;
+            highScoreText = "Highscore: " + highScore;
+        }
+        if (level != hudLevel) {
+            hudLevel = level;
+            levelText = "Level: " + level;
+        }
+        if (multiplier != hudMultiplier) {
+            hudMultiplier = multiplier;
+            multiplierText = "Multiplier: x" + multiplier;
+            multiplierWidth = g2d.getFontMetrics().stringWidth(multiplierText);
+        }
+        if (speedWidth < 0) {
+            speedWidth = g2d.getFontMetrics().stringWidth(SPEED_TEXT);
+            invincibleWidth = g2d.getFontMetrics().stringWidth(INVINCIBLE_TEXT);
+            autopilotWidth = g2d.getFontMetrics().stringWidth(AUTOPILOT_TEXT);
+        }
+        
+        // Info di sisi kiri
+        g2d.setColor(textColor);
+        g2d.drawString(scoreText, 60, 585);
+        g2d.drawString(highScoreText, 60, 610);
+        g2d.drawString(levelText, 60, 635);
+        
+        // Info di sisi kanan
+        g2d.drawString(multiplierText, getWidth() - multiplierWidth - 60, 585);
+        
+        // Jika speed boost aktif, tampilkan indikator
+        if (speedBoosted) {
+            g2d.setColor(SPEED_COLOR);
+            g2d.drawString(SPEED_TEXT, getWidth() - speedWidth - 60, 610);
+        }
+        
+        // Jika invincible aktif, tampilkan indikator
+        if (invincible) {
+            g2d.setColor(INVINCIBLE_COLOR);
+            g2d.drawString(INVINCIBLE_TEXT, getWidth() - invincibleWidth - 60, 635);
+        }
+
+        // Indikator autopilot di tengah, di bawah nyawa
+        if (autopilotOn) {
+            g2d.setColor(SPEED_COLOR);
+            g2d.drawString(AUTOPILOT_TEXT, (getWidth() - autopilotWidth) / 2, 635);
+        }
+    }
+
+    /**
+     * Method untuk merender layer statis papan permainan.
+     * Dipanggil ulang hanya saat tema berubah atau ukuran panel berubah.
+     * @param width Lebar panel
+     * @param height Tinggi panel
+     * @return Gambar berisi background, arena, grid, dan panel HUD
+     */
+    private BufferedImage createBoardLayer(int width, int height) {
+        width = Math.max(1, width);
+        height = Math.max(1, height);
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        BufferedImage image = config != null
+            ? config.createCompatibleImage(width, height)
+            : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+
+        Graphics2D g2d = image.createGraphics();
+        paintBoard(g2d, width, height);
+        g2d.dispose();
+        return image;
+    }
+
+    /**
+     * Method untuk menggambar background, arena, grid, dan panel HUD
+     * @param g2d Graphics context tujuan (BufferedImage atau VolatileImage)
+     * @param width Lebar area
+     * @param height Tinggi area
+     */
+    void paintBoard(Graphics2D g2d, int width, int height) {
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        // Background panel
+        g2d.setColor(bgColor);
+        g2d.fillRect(0, 0, width, height);
+
+        // Draw game area with border
+        g2d.setColor(panelColor);
+        g2d.fillRect(50, 50, 500, 500); // Area permainan 500x500 di posisi (50,50)
+        g2d.setColor(borderColor);
+        g2d.setStroke(BORDER_STROKE); // Ketebalan border 3px
+        g2d.drawRoundRect(50, 50, 500, 500, 10, 10); // Border dengan sudut melengkung
+
+        // Gambar grid (samar)
+        g2d.setColor(GRID_COLOR);
+        g2d.setStroke(GRID_STROKE);
+        // Gambar garis vertikal dan horizontal setiap 25px
+        for (int i = 0; i <= 500; i += 25) {
+            g2d.drawLine(50 + i, 50, 50 + i, 550);
+            g2d.drawLine(50, 50 + i, 550, 50 + i);
+        }
+
+        /// Gambar panel UI di bagian bawah
+        g2d.setColor(panelColor);
+        g2d.fillRect(0, 560, width, 90);
+        g2d.setColor(borderColor);
+        g2d.setStroke(HUD_STROKE);
+        g2d.drawLine(0, 560, width, 560);
+    }
+
+    /**
      * Method untuk menggambar indikator nyawa
      * @param g Graphics context
      */
-    private void drawHearts(Graphics g) {
+    private void drawHearts(Graphics g, int lives) {
         int heartSize = 25; // Ukuran icon nyawa
         // Hitung posisi awal agar icon nyawa ditengah
         int startX = getWidth() / 2 - (lives * (heartSize + 5)) / 2;
         int y = 580; // Posisi y tetap
-        
+
+        // Icon nyawa digambar sekali ke sprite, lalu cukup di-blit (polygon tidak dibuat tiap frame)
+        if (heartSprite == null) {
+            heartSprite = new BufferedImage(heartSize + 2 * HEART_PADDING, heartSize + heartSize / 3 + 2 * HEART_PADDING,
+                BufferedImage.TYPE_INT_ARGB);
+            Graphics2D sprite = heartSprite.createGraphics();
+            sprite.setStroke(HUD_STROKE);
+            drawHeart(sprite, HEART_PADDING, HEART_PADDING + heartSize / 3, heartSize);
+            sprite.dispose();
+        }
         for (int i = 0; i < lives; i++) {
-            drawHeart(g, startX + i * (heartSize + 5), y, heartSize);
+            g.drawImage(heartSprite, startX + i * (heartSize + 5) - HEART_PADDING, y - heartSize / 3 - HEART_PADDING, null);
         }
     }
 
@@ -399,9 +822,9 @@ public class GamePanel extends JPanel implements ActionListener {
         int[] yPoints = {y+size/3, y, y-size/3, y, y+size/3, y+size/2, y+size, y+size/2};
         
         // Gambar icon nyawa dengan warna merah
-        g2d.setColor(new Color(220, 50, 50));  // Warna merah
+        g2d.setColor(HEART_COLOR);  // Warna merah
         g2d.fillPolygon(xPoints, yPoints, 8); // Isi icon nyawa
-        g2d.setColor(new Color(180, 40, 40));  // Warna merah lebih gelap
+        g2d.setColor(HEART_BORDER_COLOR);  // Warna merah lebih gelap
         g2d.drawPolygon(xPoints, yPoints, 8);  // Garis tepi icon nyawa
     }
 
@@ -413,23 +836,47 @@ public class GamePanel extends JPanel implements ActionListener {
         Graphics2D g2d = (Graphics2D) g;
         
         // Semi-transparent overlay
-        g2d.setColor(new Color(0, 0, 0, 150));
+        g2d.setColor(PAUSE_OVERLAY_COLOR);
         g2d.fillRoundRect(50, 50, 500, 500, 10, 10);
         
         // Pause text
         g2d.setColor(Color.WHITE);
-        g2d.setFont(new Font("Courier", Font.BOLD, 48));
+        g2d.setFont(PAUSE_FONT);
         
         String pauseText = "PAUSED";
         int textWidth = g2d.getFontMetrics().stringWidth(pauseText);
         g2d.drawString(pauseText, 300 - textWidth/2, 300);
         
-        g2d.setFont(new Font("Courier", Font.PLAIN, 18));
+        g2d.setFont(PAUSE_HINT_FONT);
         String continueText = "Press ESC to continue";
         int continueWidth = g2d.getFontMetrics().stringWidth(continueText);
         g2d.drawString(continueText, 300 - continueWidth/2, 340);
     }
 
+    /**
+     * Method untuk menggambar overlay nyawa hilang / game over di atas arena
+     * @param g2d Graphics context
+     */
+    private void drawOverlay(Graphics2D g2d) {
+        g2d.setColor(PAUSE_OVERLAY_COLOR);
+        g2d.fillRoundRect(50, 50, 500, 500, 10, 10);
+
+        g2d.setColor(Color.WHITE);
+        g2d.setFont(PAUSE_FONT);
+        int y = 300 - overlayLines.length * 15;
+        g2d.drawString(overlayTitle, 300 - g2d.getFontMetrics().stringWidth(overlayTitle) / 2, y);
+
+        g2d.setFont(PAUSE_HINT_FONT);
+        FontMetrics fm = g2d.getFontMetrics();
+        y += 20;
+        for (String line : overlayLines) {
+            y += 30;
+            g2d.drawString(line, 300 - fm.stringWidth(line) / 2, y);
+        }
+        g2d.drawString(overlayHint, 300 - fm.stringWidth(overlayHint) / 2, y + 50);
+        if (practiceMode) g2d.drawString(REWIND_HINT, 300 - fm.stringWidth(REWIND_HINT) / 2, y + 80);
+    }
+
      /**
      * Method yang dipanggil oleh timer untuk update game state
      * @param e ActionEvent dari timer
@@ -439,177 +886,224 @@ public class GamePanel extends JPanel implements ActionListener {
         // Jika game tidak berjalan, dijeda, atau sedang respawn, abaikan
         if (!isRunning || isPaused || isRespawning) return;
 
-        // Movement logic
-        int dx = 0, dy = 0;
-        switch (direction) {
-            case 'U' -> dy = -25; //Ataas 
-            case 'D' -> dy = 25; // Bawah
-            case 'L' -> dx = -25; // Kiri
-            case 'R' -> dx = 25; // Kanan
-        }
+        if (autopilotOn) inputs.offer(autopilot.decide(engine)); // Seperti tombol dari KeyHandler
+        int events = engine.step(inputs.poll(engine.getDirection())); // Satu tick simulasi, satu belokan
+        syncView();
+        if (gameTimer.getDelay() != engine.getDelay()) gameTimer.setDelay(engine.getDelay());
 
-        snake.move(dx, dy); // Gerakkan ular
+        handleEvents(events, engine.getLevel());
+        flushChanges(); // Repaint hanya region yang berubah
+    }
 
-        // Cek jika ular memakan apel
-        if (snake.getX() == apple.getX() && snake.getY() == apple.getY()) {
-            handleAppleEaten();
-        }
+    /**
+     * Method untuk menanggapi event dari engine (selalu di EDT)
+     * @param events Gabungan flag GameEngine.EVENT_*
+     * @param level Level saat event terjadi
+     */
+    private void handleEvents(int events, int level) {
+        if ((events & GameEngine.EVENT_LEVEL_UP) != 0) levelUp(level);
 
-        // Deteksi tabrakan (dengan tubuh sendiri atau keluar arena)
-        if ((snake.isColliding() || isOutOfBounds()) && !isInvincible) {
+        // Tabrakan: kehilangan nyawa atau game over
+        if ((events & GameEngine.EVENT_LIFE_LOST) != 0) {
             handleCollision();
+        } else if ((events & GameEngine.EVENT_GAME_OVER) != 0) {
+            stopTicking();
+            gameOver();
         }
-
-        repaint();
     }
 
-      /**
-     * Method untuk menangani ketika apel dimakan
-     */
-    private void handleAppleEaten() {
-        applesEaten++;
-        
-        int points = 10;
-        int growthAmount = 1;
-        switch (apple.getType()) {
-            case 1: // Apel emas
-                points = 50; // Poin lebih banyak
-                multiplier = 2; // Multiplier 2x
-                growthAmount = 3;
-                snake.setEffectColor(new Color(255, 215, 0));
-                effectTimer.stop();
-                effectTimer.setInitialDelay(10000);
-                effectTimer.start();
-                specialApplesEaten++;
-                break;
-            case 2:  // Apel biru (speed boost)
-                isSpeedBoosted = true;
-                growthAmount = 1;
-                gameTimer.setDelay(Math.max(50, gameTimer.getDelay() - 20));
-                snake.setEffectColor(new Color(70, 130, 180));
-                effectTimer.stop();
-                effectTimer.setInitialDelay(8000);
-                effectTimer.start();
-                specialApplesEaten++; // Tambah counter apel spesial
-                break;
-            case 3:  // Apel hijau (bonus)
-                isInvincible = true; // Aktifkan invincible
-                growthAmount = 2;
-                lives = Math.min(3, lives + 1); // Tambah nyawa (maks 3)
-                snake.setEffectColor(new Color(50, 180, 50)); // Efek warna hijau
-                effectTimer.stop();
-                effectTimer.setInitialDelay(5000); // Efek selama 5 detik
-                effectTimer.start();
-                specialApplesEaten++; // Tambah counter apel spesial
-                break;
-            
-            default: // Normal apple (apel merah)
-            growthAmount = 1; // Tambah 1 segmen
-            break;
-        }
-        
-         // Tambahkan panjang ular sesuai jenis apel
-    for (int i = 0; i < growthAmount; i++) {
-        snake.grow();
-        }
-        
-        score += points * multiplier; // Tambah skor (dikalikan multiplier jika ada)
-        apple.spawn(); // Buat apel baru di posisi random
-        
-         // Naik level setiap 5 apel
-        if (applesEaten % 5 == 0) {
-            levelUp();
-        }
+    // Menyamakan objek gambar (ular dan apel) dengan state engine
+    private void syncView() {
+        snake.sync(engine.getDirection());
+        snake.setEffectColor(effectColor(engine.getEffectType())); // Efek berakhir sendiri di engine
+        // Viewport bergeser: semua sel yang terlihat ikut berpindah
+        if (camera.follow(engine.getHeadX(), engine.getHeadY())) engine.getChanges().markFull();
+        apple.place(Snake.toPixel(engine.getAppleX()), Snake.toPixel(engine.getAppleY()), engine.getAppleType());
     }
 
     /**
-     * Method untuk meningkatkan level
+     * Method untuk mengubah perubahan tick menjadi repaint per region.
+     * Repaint penuh dipakai saat pause, overlay, level up, atau jika diminta ChangeSet.
      */
-    private void levelUp() {
-    level++; // Naik level
-    gameTimer.setDelay(Math.max(50, gameTimer.getDelay() - 10)); // Naikkan kecepatan
+    private void flushChanges() {
+        ChangeSet changes = engine.getChanges();
+        if (activeRendering) {
+            activeRenderer.render(); // Active rendering selalu menggambar frame penuh
+        } else if (changes.isFull() || isPaused || overlay != OVERLAY_NONE || !levelUpText.isEmpty()) {
+            repaint();
+        } else {
+            // Setiap sel digambar ulang seluas sprite (termasuk lidah dan tangkai apel), relatif ke kamera
+            int offsetX = camera.getX() * Snake.CELL_SIZE + SpriteCache.PADDING;
+            int offsetY = camera.getY() * Snake.CELL_SIZE + SpriteCache.PADDING;
+            for (int i = 0; i < changes.getCellCount(); i++) {
+                int cell = changes.getCell(i);
+                repaint(Snake.toPixel(SnakeBody.cellX(cell)) - offsetX,
+                        Snake.toPixel(SnakeBody.cellY(cell)) - offsetY,
+                        SpriteCache.SIZE, SpriteCache.SIZE);
+            }
 
-    // Cek dan simpan skor tertinggi per level
-    if (score > levelHighScores.getOrDefault(level, 0)) {
-        levelHighScores.put(level, score);
+            // Region field HUD (kiri: skor dan level; kanan: multiplier dan efek; tengah: nyawa)
+            int hud = changes.getHudFields();
+            int rightX = getWidth() - 270;
+            if ((hud & ChangeSet.HUD_SCORE) != 0) repaint(50, 567, 260, 24);
+            if ((hud & ChangeSet.HUD_LEVEL) != 0) repaint(50, 617, 260, 24);
+            if ((hud & ChangeSet.HUD_MULTIPLIER) != 0) repaint(rightX, 567, 220, 24);
+            if ((hud & ChangeSet.HUD_SPEED) != 0) repaint(rightX, 592, 220, 24);
+            if ((hud & ChangeSet.HUD_INVINCIBLE) != 0) repaint(rightX, 617, 220, 24);
+            if ((hud & ChangeSet.HUD_LIVES) != 0) repaint(getWidth() / 2 - 55, 565, 110, 45);
+        }
+        changes.clear();
     }
 
-    // Tampilkan tulisan level up (pakai waktu sistem)
-    levelUpText = "Level Up! Now at Level " + level;
-    levelUpStartTime = System.currentTimeMillis();
+    // Warna efek pada kepala ular sesuai jenis apel spesial
+    private static Color effectColor(int effectType) {
+        return switch (effectType) {
+            case GameEngine.APPLE_GOLDEN -> Apple.GOLDEN_COLOR;
+            case GameEngine.APPLE_SPEED -> Apple.SPEED_COLOR;
+            case GameEngine.APPLE_BONUS -> Apple.BONUS_COLOR;
+            default -> null;
+        };
     }
 
-
     /**
-     * Method untuk mengecek apakah ular keluar arena
-     * @return true jika keluar arena, false jika tidak
+     * Method untuk menampilkan notifikasi level up
      */
-    private boolean isOutOfBounds() {
-        return snake.getX() < 50 || snake.getY() < 50 || 
-               snake.getX() >= 530 || snake.getY() >= 530;
+    private void levelUp(int level) {
+        // Tampilkan tulisan level up (pakai waktu sistem); selama tampil, panel di-repaint penuh
+        levelUpText = "Level Up! Now at Level " + level;
+        levelUpStartTime = System.currentTimeMillis();
     }
 
+    /**
+     * Method untuk menangani nyawa hilang tanpa dialog modal.
+     * Ular yang tabrakan tetap terlihat di bawah overlay selama hitung mundur,
+     * lalu engine di-respawn dan tick dilanjutkan oleh respawnTimer.
+     */
     private void handleCollision() {
-        gameTimer.stop(); // Hentikan permainan sementara
-        lives--; // Kurangi nyawa
-        
-        if (lives > 0) {
-            // Jika masih ada nyawa tersisa
-            isRespawning = true;
-            // Tampilkan pesan
-            JOptionPane.showMessageDialog(this, 
-                "Crash! " + lives + " lives left", 
-                "Life Lost", 
-                JOptionPane.WARNING_MESSAGE);
-            
-            snake = new Snake(125, 125, snakeColor); // respawn dengan panjang sebelumnya
-            direction = 'R';
-            apple.spawn(); // Buat apel baru
-            respawnTimer.start(); // Mulai timer respawn
-        } else {
-            
-            gameOver(); // Panggil method game over
-        }
+        stopTicking(); // Hentikan permainan sementara (loop juga sudah berhenti sendiri)
+
+        // Masih ada nyawa tersisa
+        isRespawning = true;
+        resetInputs('R'); // Tombol yang ditekan selama hitung mundur berlaku untuk ular baru
+        overlay = OVERLAY_LIFE_LOST;
+        overlayTitle = "CRASH!";
+        overlayLines = new String[]{engine.getLives() + (engine.getLives() == 1 ? " life left" : " lives left")};
+        startCountdown(RESPAWN_SECONDS);
     }
 
      //Method untuk menangani game over
     private void gameOver() {
-        isRunning = false;
-        
         // Simpan highscore jika skor saat ini lebih tinggi
+        int score = engine.getScore();
         int highscore = ScoreManager.getHighScore();
-        if (score > highscore) {
-            ScoreManager.saveHighScore(score);
+        if (!practiceMode) {
+            ReplayRecorder recorder = engine.getRecorder(); // null untuk game yang dilanjutkan dari snapshot
+            if (score > highscore && !autopilotPlayed) {
+                ScoreManager.saveHighScore(score);
+                if (recorder != null) recorder.saveAsync(engine, HIGHSCORE_REPLAY); // Bukti skor, bisa dicek dengan game.Replay
+            }
+            if (recorder != null) recorder.saveAsync(engine, LAST_REPLAY);
         }
-        
-        // Format statistik game over
-        String stats = String.format(
-            "Game Over!\n\nFinal Score: %d\nLevel Reached: %d\nApples Eaten: %d\nSpecial Apples: %d",
-            score, level, applesEaten, specialApplesEaten
-        );
-        // Tampilkan dialog game over dengan pilihan
-        int option = JOptionPane.showOptionDialog(this, 
-            stats, 
-            "Game Over", 
-            JOptionPane.YES_NO_OPTION, 
-            JOptionPane.INFORMATION_MESSAGE, 
-            null, 
-            new String[]{"Play Again", "Main Menu"}, 
-            "Play Again");
-        
-        if (option == 0) {
-            startGame();
+        if (inputStats) System.out.println("[input] " + inputs.latencySummary());
+
+        // Statistik game over ditampilkan di overlay; panel tetap menggambar dan menerima tombol
+        overlay = OVERLAY_GAME_OVER;
+        overlayTitle = "GAME OVER";
+        overlayLines = new String[]{
+            "Final Score: " + score,
+            "Level Reached: " + engine.getLevel(),
+            "Apples Eaten: " + engine.getApplesEaten(),
+            "Special Apples: " + engine.getSpecialApplesEaten()
+        };
+        if (autoContinueSeconds > 0) {
+            startCountdown(autoContinueSeconds);
         } else {
-            removeAll();
-            createStartMenu();
+            overlayHint = "ENTER: Play Again   M: Main Menu";
+            requestRender();
         }
     }
 
+    // Memulai hitung mundur overlay
+    private void startCountdown(int seconds) {
+        countdown = seconds;
+        updateCountdownHint();
+        respawnTimer.restart();
+        requestRender();
+    }
+
+    // Dipanggil respawnTimer tiap detik selama overlay tampil
+    private void countdownTick() {
+        if (--countdown > 0) {
+            updateCountdownHint();
+            requestRender();
+            return;
+        }
+        respawnTimer.stop();
+        if (overlay == OVERLAY_GAME_OVER) {
+            startGame(); // Lanjut otomatis
+        } else {
+            respawn();
+        }
+    }
+
+    private void updateCountdownHint() {
+        overlayHint = overlay == OVERLAY_GAME_OVER
+            ? "Play again in " + countdown + "...   M: Main Menu"
+            : "Respawning in " + countdown + "...";
+    }
+
+    // Ular kembali ke posisi awal, apel baru, lalu tick dilanjutkan
+    private void respawn() {
+        respawnTimer.stop();
+        overlay = OVERLAY_NONE;
+        isRespawning = false;
+        onEngine(engine::respawn);
+        if (gameLoop == null) {
+            syncView();
+            engine.getChanges().markFull();
+        }
+        startTicking();
+        requestRender();
+    }
+
+    /**
+     * Method untuk mundur satu detik di mode latihan (tombol ditahan = terus mundur).
+     * Dari overlay crash / game over, tick yang menabrak ikut dibatalkan lalu permainan lanjut.
+     */
+    private void rewindGame() {
+        if (!practiceMode) return;
+        boolean resume = overlay != OVERLAY_NONE; // Selama overlay tampil tick sedang berhenti
+        respawnTimer.stop();
+        overlay = OVERLAY_NONE;
+        isRespawning = false;
+        if (gameLoop == null) {
+            engine.rewind(1000 / engine.getDelay());
+            inputs.reset(engine.getDirection());
+            syncView();
+        } else {
+            gameLoop.execute(() -> {
+                engine.rewind(1000 / engine.getDelay());
+                resetInputsFromLoop(engine.getDirection());
+            });
+        }
+        if (resume && !isPaused) startTicking();
+        requestRender();
+    }
+
+    // Kembali ke menu utama dari overlay game over
+    private void showMainMenu() {
+        respawnTimer.stop();
+        overlay = OVERLAY_NONE;
+        isRunning = false;
+        removeAll();
+        createStartMenu();
+    }
+
      /**
      * Method untuk mengubah tema permainan
      * @param themeId ID tema (1=default, 2=dark, 3=nature)
      */
-    private void changeTheme(int themeId) {
+    void changeTheme(int themeId) {
         switch (themeId) {
             case 1 -> { // Default
                 bgColor = new Color(240, 240, 240);
@@ -638,6 +1132,10 @@ public class GamePanel extends JPanel implements ActionListener {
         }
         // Terapkan warna baru
         setBackground(bgColor);
+        boardLayer = null; // Layer statis dirender ulang dengan warna tema baru
+        if (activeRenderer != null) activeRenderer.invalidateBoard();
+        if (engine != null && gameLoop == null) engine.getChanges().markFull();
+        SpriteCache.clear(); // Sprite tema lama dibuang
         if (snake != null) snake.setColor(snakeColor);
         if (apple != null) apple.setColor(appleColor);
     }
@@ -648,21 +1146,39 @@ public class GamePanel extends JPanel implements ActionListener {
         public void keyPressed(KeyEvent e) {
             if (!isRunning) return;
 
+            // Game over: hanya pilihan main lagi atau kembali ke menu
+            if (overlay == OVERLAY_GAME_OVER) {
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_ENTER, KeyEvent.VK_SPACE -> startGame();
+                    case KeyEvent.VK_M, KeyEvent.VK_ESCAPE -> showMainMenu();
+                    case KeyEvent.VK_BACK_SPACE -> rewindGame();
+                    case KeyEvent.VK_F3 -> toggleRendering();
+                }
+                return;
+            }
+
             switch (e.getKeyCode()) {
-                case KeyEvent.VK_LEFT -> { if (direction != 'R') direction = 'L'; }
-                case KeyEvent.VK_RIGHT -> { if (direction != 'L') direction = 'R'; }
-                case KeyEvent.VK_UP -> { if (direction != 'D') direction = 'U'; }
-                case KeyEvent.VK_DOWN -> { if (direction != 'U') direction = 'D'; }
+                // Arah masuk antrian; cek berbalik arah dilakukan terhadap arah terakhir di antrian.
+                // Selama autopilot aktif arah diisi autopilot saja (antrian hanya boleh punya satu penulis)
+                case KeyEvent.VK_LEFT -> { if (keyboardInput) inputs.offer('L'); }
+                case KeyEvent.VK_RIGHT -> { if (keyboardInput) inputs.offer('R'); }
+                case KeyEvent.VK_UP -> { if (keyboardInput) inputs.offer('U'); }
+                case KeyEvent.VK_DOWN -> { if (keyboardInput) inputs.offer('D'); }
+                case KeyEvent.VK_A -> toggleAutopilot(); // Ular bermain sendiri / kembali ke keyboard
                 case KeyEvent.VK_ESCAPE -> { // Tombol ESC untuk pause/lanjut
+                    if (isRespawning) return; // Hitung mundur respawn tidak bisa dijeda
                     isPaused = !isPaused; 
                     if (isPaused) {
-                        gameTimer.stop(); // Jeda game
+                        stopTicking(); // Jeda game
                     } else {
-                        gameTimer.start(); // Lanjutkan game
+                        startTicking(); // Lanjutkan game
                     }
+                    requestRender(); // Overlay pause muncul/hilang di seluruh arena
                 }
-                case KeyEvent.VK_SPACE -> { // Tombol spasi untuk mulai game
-                    if (!isRunning) startGame();
+                case KeyEvent.VK_F3 -> toggleRendering(); // Ganti passive / active rendering
+                case KeyEvent.VK_BACK_SPACE -> rewindGame(); // Mode latihan: mundur satu detik
+                case KeyEvent.VK_SPACE -> { // Spasi saat hitung mundur: langsung respawn
+                    if (overlay == OVERLAY_LIFE_LOST) respawn();
                 }
             }
         }
@@ -0,0 +1,53 @@
+package game;
+
+// Generator angka acak yang bisa di-seed dan disimpan state-nya (SplitMix64).
+// Dipakai engine supaya satu seed selalu menghasilkan permainan yang sama.
+public class GameRandom {
+    static final long GAMMA = 0x9E3779B97F4A7C15L; // Tambahan state per angka
+
+    private long state;
+
+    public GameRandom(long seed) {
+        this.state = seed;
+    }
+
+    public long nextLong() {
+        return mix(state += GAMMA);
+    }
+
+    // Fungsi pengacak SplitMix64 (dipakai juga BatchEnv yang menyimpan state acak per game di array)
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Angka acak seragam di rentang [0, bound)
+     * @param bound Batas atas (harus > 0)
+     * @return angka acak
+     */
+    public int nextInt(int bound) {
+        int r = (int) (nextLong() >>> 33); // 31 bit acak
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            return (int) ((bound * (long) r) >> 31); // bound pangkat 2
+        }
+        // Tolak sisa yang tidak habis dibagi supaya distribusi tetap seragam
+        for (int u = r; u - (r = u % bound) + m < 0; u = (int) (nextLong() >>> 33)) { }
+        return r;
+    }
+
+    // Angka acak seragam di rentang [0, 1) dengan 53 bit acak (dipakai GeneticTuner)
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state;
+    }
+}
@@ -0,0 +1,358 @@
+package game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.zip.CRC32;
+
+/**
+ * Tuner algoritma genetika untuk bobot Autopilot.decide(engine, weights):
+ * jarak ke apel, ruang kosong (flood fill), ekor terjangkau, dan preferensi apel spesial.
+ * Tiap generasi semua individu memainkan game dengan seed yang sama (common random numbers),
+ * jadi selisih fitness datang dari bobot, bukan dari keberuntungan letak apel. Seed berganti tiap generasi
+ * supaya bobot tidak hafal satu set game.
+ * Evaluasi paralel lewat ForkJoinPool; tiap thread punya GameEngine dan Autopilot sendiri
+ * (aturan GamePanel.actionPerformed/handleAppleEaten yang sama, tanpa Swing).
+ * Fitness = rata-rata skor. Generasi berikutnya: individu elit disalin, sisanya tournament selection,
+ * crossover campuran per gen, dan mutasi Gauss. Populasi ditulis ke checkpoint setiap generasi.
+ *
+ * Contoh: java -cp out game.GeneticTuner --population 32 --games 16 --generations 30 --checkpoint tuner.bin
+ * Bobot terbaik bisa diadu di Tournament: --strategies autopilot,weighted:a/s/t/p
+ */
+public class GeneticTuner {
+    public static final double[] DEFAULT_WEIGHTS = {1.0, 1.0, 2.0, 0.5}; // Urutan Autopilot.APPLE_WEIGHT ..
+    static final double MIN_WEIGHT = -2, MAX_WEIGHT = 8; // Batas bobot setelah mutasi
+    private static final int GRAIN = 2; // Game per tugas terkecil
+    private static final int ELITES = 2; // Individu terbaik yang lolos tanpa perubahan
+    private static final int TOURNAMENT_SIZE = 3;
+    private static final int MAGIC = 0x534E4B54; // "SNKT"
+    private static final short VERSION = 1; // Naikkan jika format checkpoint berubah
+    private static final int HEADER = 58; // Byte sebelum data individu
+
+    private final int cols, rows;
+    private final int games; // Game per individu per generasi
+    private final int maxTicks;
+    private final long seed;
+    private final double mutation; // Simpangan baku mutasi Gauss
+    private final GameRandom random; // Acak GA (seleksi, crossover, mutasi), ikut disimpan di checkpoint
+    private double[][] population;
+    private double[] fitness;
+    private int[][] scores; // [individu][game], tiap slot ditulis tepat satu tugas
+    private long[][] ticks;
+    private int generation;
+    private boolean evaluated; // true jika fitness sudah milik populasi saat ini
+    private final ThreadLocal<Worker> workers;
+
+    /**
+     * @param cols Jumlah kolom papan
+     * @param rows Jumlah baris papan
+     * @param size Jumlah individu per generasi
+     * @param games Game per individu per generasi
+     * @param maxTicks Batas tick per game
+     * @param seed Seed game generasi pertama dan seed acak GA
+     * @param mutation Simpangan baku mutasi
+     */
+    public GeneticTuner(int cols, int rows, int size, int games, int maxTicks, long seed, double mutation) {
+        this.cols = cols;
+        this.rows = rows;
+        this.games = games;
+        this.maxTicks = maxTicks;
+        this.seed = seed;
+        this.mutation = mutation;
+        this.random = new GameRandom(~seed);
+        this.workers = ThreadLocal.withInitial(Worker::new);
+        setPopulation(new double[Math.max(ELITES + 1, size)][]);
+        population[0] = DEFAULT_WEIGHTS.clone(); // Titik awal yang sudah lumayan
+        for (int i = 1; i < population.length; i++) {
+            population[i] = new double[Autopilot.WEIGHT_COUNT];
+            for (int k = 0; k < Autopilot.WEIGHT_COUNT; k++) population[i][k] = random.nextDouble() * 4;
+        }
+    }
+
+    private void setPopulation(double[][] population) {
+        this.population = population;
+        this.fitness = new double[population.length];
+        this.scores = new int[population.length][games];
+        this.ticks = new long[population.length][games];
+    }
+
+    // Engine dan Autopilot milik satu thread; strategi bot memakai bobot individu yang sedang dimainkan
+    private class Worker implements Tournament.Strategy {
+        final GameEngine engine = new GameEngine(cols, rows, 0);
+        final Autopilot pilot = new Autopilot(cols, rows);
+        double[] weights;
+
+        @Override
+        public char decide(GameEngine engine) {
+            return pilot.decide(engine, weights);
+        }
+
+        void play(int job) {
+            int individual = job / games, game = job % games;
+            weights = population[individual];
+            Tournament.play(engine, this, gameSeed(game), maxTicks);
+            scores[individual][game] = engine.getScore();
+            ticks[individual][game] = engine.getTick();
+        }
+    }
+
+    // Seed game ke-i generasi ini: sama untuk semua individu, berbeda antar generasi
+    private long gameSeed(int game) {
+        return seed + (long) generation * games + game;
+    }
+
+    // Rentang job (individu x game) yang dibelah dua sampai GRAIN
+    @SuppressWarnings("serial") // Tugas fork-join tidak pernah diserialisasi
+    private class Jobs extends RecursiveAction {
+        private final int from, to;
+
+        Jobs(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GRAIN) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Jobs(from, middle), new Jobs(middle, to));
+                return;
+            }
+            Worker worker = workers.get();
+            for (int job = from; job < to; job++) worker.play(job);
+        }
+    }
+
+    /**
+     * Method untuk menjalankan GA sampai generasi terakhir, dengan laporan dan checkpoint tiap generasi
+     * @param generations Jumlah generasi total (termasuk generasi dari checkpoint)
+     * @param threads Jumlah thread pool
+     * @param checkpoint File checkpoint, atau null
+     */
+    public void run(int generations, int threads, Path checkpoint) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            while (true) {
+                if (!evaluated) {
+                    long start = System.nanoTime();
+                    pool.invoke(new Jobs(0, population.length * games));
+                    long elapsed = System.nanoTime() - start;
+                    for (int i = 0; i < population.length; i++) {
+                        long total = 0;
+                        for (int score : scores[i]) total += score;
+                        fitness[i] = (double) total / games;
+                    }
+                    evaluated = true;
+                    printGeneration(elapsed);
+                    if (checkpoint != null) writeCheckpoint(checkpoint);
+                }
+                if (generation + 1 >= generations) break;
+                evolve();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Populasi generasi berikutnya dari populasi yang sudah dievaluasi
+    private void evolve() {
+        int size = population.length;
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(fitness[b], fitness[a]));
+
+        double[][] next = new double[size][];
+        for (int i = 0; i < ELITES; i++) next[i] = population[order[i]].clone();
+        for (int i = ELITES; i < size; i++) {
+            double[] a = population[select()], b = population[select()];
+            double[] child = new double[Autopilot.WEIGHT_COUNT];
+            for (int k = 0; k < child.length; k++) {
+                double mix = random.nextDouble(); // Titik acak di antara kedua induk
+                double value = a[k] + mix * (b[k] - a[k]) + gaussian() * mutation;
+                child[k] = Math.max(MIN_WEIGHT, Math.min(MAX_WEIGHT, value));
+            }
+            next[i] = child;
+        }
+        setPopulation(next);
+        generation++;
+        evaluated = false;
+    }
+
+    // Tournament selection: individu terbaik dari beberapa yang diambil acak
+    private int select() {
+        int best = random.nextInt(population.length);
+        for (int i = 1; i < TOURNAMENT_SIZE; i++) {
+            int other = random.nextInt(population.length);
+            if (fitness[other] > fitness[best]) best = other;
+        }
+        return best;
+    }
+
+    // Normal baku (Box-Muller)
+    private double gaussian() {
+        double u = 1 - random.nextDouble(); // (0, 1], log(0) tidak mungkin
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private int bestIndividual() {
+        int best = 0;
+        for (int i = 1; i < fitness.length; i++) if (fitness[i] > fitness[best]) best = i;
+        return best;
+    }
+
+    private void printGeneration(long elapsedNanos) {
+        long totalTicks = 0;
+        for (long[] individual : ticks) for (long t : individual) totalTicks += t;
+        double[] sorted = fitness.clone();
+        Arrays.sort(sorted);
+        double mean = 0;
+        for (double f : sorted) mean += f / sorted.length;
+        double seconds = Math.max(1e-9, elapsedNanos / 1e9);
+        System.out.printf(Locale.ROOT, "gen %3d  best %9.1f  mean %9.1f  median %9.1f  %s  %,8.0f games/s  %,12.0f ticks/s%n",
+            generation, sorted[sorted.length - 1], mean, sorted[sorted.length / 2],
+            formatWeights(population[bestIndividual()]), population.length * games / seconds, totalTicks / seconds);
+    }
+
+    /**
+     * Method untuk menulis populasi yang sudah dievaluasi (ditulis atomik lewat SaveGame.write)
+     * Format: magic "SNKT", versi, papan, game, batas tick, seed, generasi, state acak GA,
+     * jumlah individu, lalu bobot + fitness tiap individu, CRC32
+     * @param file File checkpoint
+     */
+    public void writeCheckpoint(Path file) throws IOException {
+        int size = population.length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + size * (Autopilot.WEIGHT_COUNT + 1) * 8 + 8);
+        buffer.putInt(MAGIC).putShort(VERSION).putInt(cols).putInt(rows).putInt(games).putInt(maxTicks)
+            .putLong(seed).putDouble(mutation).putInt(generation).putLong(random.getState()).putInt(size)
+            .putInt(Autopilot.WEIGHT_COUNT);
+        for (int i = 0; i < size; i++) {
+            for (double weight : population[i]) buffer.putDouble(weight);
+            buffer.putDouble(fitness[i]);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putLong(crc.getValue());
+        buffer.flip();
+        SaveGame.write(buffer, file);
+    }
+
+    /**
+     * Method untuk melanjutkan tuner dari checkpoint (pengaturan papan, game, dan seed ikut checkpoint)
+     * @param file File checkpoint
+     * @return tuner dengan populasi yang sudah dievaluasi, atau null jika tidak ada / rusak / versi lain
+     */
+    public static GeneticTuner readCheckpoint(Path file) throws IOException {
+        if (!Files.exists(file)) return null;
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < HEADER + 8) return null;
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.limit() - 8);
+        if (crc.getValue() != buffer.getLong(buffer.limit() - 8)) return null;
+        if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) return null;
+
+        int cols = buffer.getInt(), rows = buffer.getInt(), games = buffer.getInt(), maxTicks = buffer.getInt();
+        long seed = buffer.getLong();
+        double mutation = buffer.getDouble();
+        int generation = buffer.getInt();
+        long state = buffer.getLong();
+        int size = buffer.getInt();
+        if (buffer.getInt() != Autopilot.WEIGHT_COUNT || size <= ELITES) return null;
+        if (buffer.remaining() != size * (Autopilot.WEIGHT_COUNT + 1) * 8 + 8) return null;
+
+        GeneticTuner tuner = new GeneticTuner(cols, rows, size, games, maxTicks, seed, mutation);
+        for (int i = 0; i < size; i++) {
+            for (int k = 0; k < Autopilot.WEIGHT_COUNT; k++) tuner.population[i][k] = buffer.getDouble();
+            tuner.fitness[i] = buffer.getDouble();
+        }
+        tuner.generation = generation;
+        tuner.random.setState(state);
+        tuner.evaluated = true;
+        return tuner;
+    }
+
+    /**
+     * Method untuk membaca bobot dari teks "a/s/t/p" (format yang dicetak tuner, koma dipakai --strategies)
+     * @param text Bobot dipisah garis miring, urutan Autopilot.APPLE_WEIGHT ..
+     * @return array bobot
+     */
+    static double[] parseWeights(String text) {
+        String[] parts = text.split("/");
+        if (parts.length != Autopilot.WEIGHT_COUNT) {
+            throw new IllegalArgumentException("Expected " + Autopilot.WEIGHT_COUNT + " weights: " + text);
+        }
+        double[] weights = new double[parts.length];
+        for (int k = 0; k < parts.length; k++) weights[k] = Double.parseDouble(parts[k].trim());
+        return weights;
+    }
+
+    static String formatWeights(double[] weights) {
+        StringBuilder text = new StringBuilder();
+        for (int k = 0; k < weights.length; k++) {
+            if (k > 0) text.append('/');
+            text.append(String.format(Locale.ROOT, "%.3f", weights[k]));
+        }
+        return text.toString();
+    }
+
+    public double[] getBestWeights() {
+        return population[bestIndividual()].clone();
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int size = 24, games = 12, generations = 20, maxTicks = 5_000;
+        int cols = 20, rows = 20;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 1;
+        double mutation = 0.3;
+        Path checkpoint = null;
+        boolean resume = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--population" -> size = Integer.parseInt(args[++i]);
+                case "--games" -> games = Integer.parseInt(args[++i]);
+                case "--generations" -> generations = Integer.parseInt(args[++i]);
+                case "--board" -> {
+                    String[] parts = args[++i].toLowerCase().split("x");
+                    cols = Integer.parseInt(parts[0]);
+                    rows = Integer.parseInt(parts[parts.length - 1]);
+                }
+                case "--max-ticks" -> maxTicks = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--mutation" -> mutation = Double.parseDouble(args[++i]);
+                case "--checkpoint" -> checkpoint = Paths.get(args[++i]);
+                case "--resume" -> resume = true;
+                default -> {
+                    System.err.println("Usage: GeneticTuner [--population n] [--games n] [--generations n]"
+                        + " [--board CxR] [--max-ticks n] [--threads n] [--seed s] [--mutation sd]"
+                        + " [--checkpoint file] [--resume]");
+                    System.exit(2);
+                }
+            }
+        }
+
+        GeneticTuner tuner = null;
+        if (resume && checkpoint != null) {
+            tuner = readCheckpoint(checkpoint);
+            if (tuner != null) {
+                System.out.println("Resumed " + checkpoint + " at generation " + tuner.getGeneration()
+                    + " (board, games and seed from checkpoint)");
+            } else {
+                System.out.println("No usable checkpoint at " + checkpoint + ", starting fresh");
+            }
+        }
+        if (tuner == null) tuner = new GeneticTuner(cols, rows, size, games, maxTicks, seed, mutation);
+        tuner.run(generations, threads, checkpoint);
+        System.out.println("Best weights: weighted:" + formatWeights(tuner.getBestWeights()));
+    }
+}
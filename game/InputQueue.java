@@ -0,0 +1,101 @@
+package game;
+
+/**
+ * Antrian arah dari keyboard, dibaca simulasi satu arah per tick.
+ * Ring buffer terbatas tanpa lock untuk satu penulis dan satu pembaca (thread tick).
+ * Penulisnya EDT (KeyHandler), atau thread loop selama autopilot terpasang di GameLoop;
+ * reset() juga hanya boleh dipanggil penulis saat itu.
+ * Sekaligus mencatat latensi tombol ditekan sampai ular benar-benar berbelok.
+ */
+public class InputQueue {
+    private static final int CAPACITY = 4; // Harus pangkat dua; tombol lebih dari ini dalam satu tick dibuang
+    private static final int MASK = CAPACITY - 1;
+
+    private final char[] directions = new char[CAPACITY];
+    private final long[] pressNanos = new long[CAPACITY];
+    private final long[] pressTicks = new long[CAPACITY];
+
+    // head hanya ditulis pembaca, tail dan resetIndex hanya ditulis penulis
+    private volatile long head;
+    private volatile long tail;
+    private volatile long resetIndex; // Entri sebelum index ini dibuang pembaca
+    private volatile long ticks; // Jumlah poll (tick), untuk latensi dalam tick
+
+    private char lastQueued = 'R'; // Arah setelah semua entri dijalankan (hanya penulis)
+
+    // Statistik latensi (hanya ditulis pembaca)
+    private long moves;
+    private long latencyNanosTotal, latencyNanosMax;
+    private long latencyTicksTotal, latencyTicksMax;
+
+    /**
+     * Method untuk memasukkan arah baru (dipanggil penulis antrian)
+     * @param direction Arah baru (U/D/L/R)
+     * @return false jika arah diabaikan (sama, berbalik arah, atau antrian penuh)
+     */
+    public boolean offer(char direction) {
+        // Cek berbalik arah terhadap arah terakhir di antrian, bukan arah ular saat ini
+        if (direction == lastQueued || direction == GameEngine.opposite(lastQueued)) return false;
+        long t = tail;
+        if (t - Math.max(head, resetIndex) >= CAPACITY) return false;
+
+        int slot = (int) (t & MASK);
+        directions[slot] = direction;
+        pressNanos[slot] = System.nanoTime();
+        pressTicks[slot] = ticks;
+        tail = t + 1; // Tulis volatile: entri terlihat lengkap oleh pembaca
+        lastQueued = direction;
+        return true;
+    }
+
+    /**
+     * Method untuk mengosongkan antrian saat ular ditempatkan ulang (dipanggil penulis antrian)
+     * @param direction Arah awal ular setelah reset
+     */
+    public void reset(char direction) {
+        resetIndex = tail;
+        lastQueued = direction;
+    }
+
+    /**
+     * Method untuk mengambil arah tick ini (dipanggil thread tick, satu kali per tick)
+     * @param current Arah ular saat ini
+     * @return Arah berikutnya di antrian, atau current jika kosong
+     */
+    public char poll(char current) {
+        long tick = ticks + 1;
+        ticks = tick;
+
+        long h = Math.max(head, resetIndex);
+        if (h == tail) {
+            head = h;
+            return current;
+        }
+
+        int slot = (int) (h & MASK);
+        char direction = directions[slot];
+        long waitedNanos = System.nanoTime() - pressNanos[slot];
+        long waitedTicks = tick - pressTicks[slot];
+        head = h + 1;
+
+        moves++;
+        latencyNanosTotal += waitedNanos;
+        latencyNanosMax = Math.max(latencyNanosMax, waitedNanos);
+        latencyTicksTotal += waitedTicks;
+        latencyTicksMax = Math.max(latencyTicksMax, waitedTicks);
+        return direction;
+    }
+
+    // Jumlah arah yang sudah dijalankan
+    public long getMoves() {
+        return moves;
+    }
+
+    // Ringkasan latensi tombol-ke-gerak (rata-rata dan maksimum, ms dan tick)
+    public String latencySummary() {
+        if (moves == 0) return "key-to-move: no input";
+        return String.format("key-to-move: %d moves, avg %.1f ms (max %.1f), avg %.2f ticks (max %d)",
+            moves, latencyNanosTotal / 1e6 / moves, latencyNanosMax / 1e6,
+            (double) latencyTicksTotal / moves, latencyTicksMax);
+    }
+}
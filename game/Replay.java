@@ -0,0 +1,255 @@
+package game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Replay yang dibaca dari file (format ditulis ReplayRecorder).
+ * Pemutar headless: game dijalankan ulang dari seed dengan arah yang sama,
+ * lalu state di setiap keyframe dan skor akhir dibandingkan dengan rekaman.
+ *
+ * Contoh: java -cp out game.Replay highscore.replay [--seek tick]
+ */
+public class Replay {
+    static final int MAGIC = 0x534E4B52; // "SNKR"
+    static final byte VERSION = 2; // 2: keyframe menyimpan urutan sel kosong (FreeCells)
+    private static final char[] DIRECTIONS = {'U', 'R', 'D', 'L'};
+
+    private final int cols, rows, keyframeInterval;
+    private final long seed;
+    private final long finalTick;
+    private final int finalScore;
+    private final ByteBuffer inputs; // Perubahan arah (varint)
+    private final long[] keyframeTicks;
+    private final int[] keyframeInputOffsets;
+    private final long[] keyframeChangeTicks;
+    private final ByteBuffer[] keyframes; // State penuh per keyframe (slice dari file)
+    private ByteBuffer scratch = ByteBuffer.allocate(1024); // Untuk membandingkan state saat verifikasi
+
+    // Posisi baca perubahan arah berikutnya
+    private long nextChangeTick;
+    private char nextDirection;
+
+    /**
+     * @param data Isi file replay
+     * @throws IOException jika format atau versi tidak dikenal
+     */
+    public Replay(ByteBuffer data) throws IOException {
+        if (data.remaining() < 5 || data.getInt() != MAGIC) throw new IOException("Not a replay file");
+        byte version = data.get();
+        if (version != VERSION) throw new IOException("Unsupported replay version " + version);
+        cols = (int) readVarint(data);
+        rows = (int) readVarint(data);
+        keyframeInterval = (int) readVarint(data);
+        seed = data.getLong();
+        finalTick = readVarint(data);
+        finalScore = (int) readVarint(data);
+
+        int inputSize = (int) readVarint(data);
+        inputs = slice(data, inputSize);
+
+        int count = (int) readVarint(data);
+        keyframeTicks = new long[count];
+        keyframeInputOffsets = new int[count];
+        keyframeChangeTicks = new long[count];
+        keyframes = new ByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            keyframeTicks[i] = readVarint(data);
+            keyframeInputOffsets[i] = (int) readVarint(data);
+            keyframeChangeTicks[i] = readVarint(data);
+            keyframes[i] = slice(data, (int) readVarint(data));
+        }
+    }
+
+    // Membaca seluruh file replay lewat FileChannel
+    public static Replay load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer data = ByteBuffer.allocate((int) channel.size());
+            while (data.hasRemaining() && channel.read(data) >= 0) { }
+            data.flip();
+            return new Replay(data);
+        }
+    }
+
+    private static ByteBuffer slice(ByteBuffer data, int length) throws IOException {
+        if (length < 0 || length > data.remaining()) throw new IOException("Truncated replay file");
+        ByteBuffer slice = data.slice();
+        slice.limit(length);
+        data.position(data.position() + length);
+        return slice;
+    }
+
+    // Engine kosong dengan ukuran papan replay
+    public GameEngine createEngine() {
+        return new GameEngine(cols, rows, seed);
+    }
+
+    /**
+     * Method untuk memulai ulang engine dari awal rekaman
+     * @param engine Engine dengan ukuran papan yang sama
+     */
+    public void restart(GameEngine engine) {
+        engine.getRandom().setState(seed);
+        engine.reset(); // Sama persis dengan new GameEngine(cols, rows, seed)
+        inputs.position(0);
+        nextChangeTick = 0;
+        readNextChange();
+    }
+
+    /**
+     * Method untuk loncat ke tick tertentu: state diambil dari keyframe terdekat sebelumnya,
+     * lalu sisanya dijalankan ulang (paling banyak keyframeInterval tick)
+     * @param engine Engine dengan ukuran papan yang sama
+     * @param tick Tick tujuan
+     */
+    public void seek(GameEngine engine, long tick) {
+        int k = Arrays.binarySearch(keyframeTicks, tick);
+        if (k < 0) k = -k - 2; // Keyframe terakhir sebelum tick
+        if (k < 0) {
+            restart(engine);
+        } else {
+            engine.readState(keyframes[k]);
+            keyframes[k].rewind();
+            inputs.position(keyframeInputOffsets[k]);
+            nextChangeTick = keyframeChangeTicks[k];
+            readNextChange();
+        }
+        stepTo(engine, tick);
+    }
+
+    /**
+     * Menjalankan engine sampai tick tertentu atau game over
+     * @param engine Engine yang sedang memutar replay ini
+     * @param tick Tick tujuan
+     */
+    public void stepTo(GameEngine engine, long tick) {
+        while (engine.getTick() < tick && !engine.isGameOver()) step(engine);
+    }
+
+    // Satu tick replay: respawn seperti GamePanel, lalu arah rekaman diberikan di tick yang sama
+    private void step(GameEngine engine) {
+        if (engine.isRespawnPending()) engine.respawn();
+        char input = 0;
+        if (nextChangeTick == engine.getTick() + 1) {
+            input = nextDirection;
+            readNextChange();
+        }
+        engine.step(input);
+        engine.getChanges().clear();
+    }
+
+    private void readNextChange() {
+        if (!inputs.hasRemaining()) {
+            nextChangeTick = Long.MAX_VALUE;
+            return;
+        }
+        long value = readVarint(inputs);
+        nextChangeTick += value >>> 2;
+        nextDirection = DIRECTIONS[(int) (value & 3)];
+    }
+
+    /**
+     * Method untuk memverifikasi seluruh replay dari seed
+     * @param engine Engine dengan ukuran papan yang sama (dipakai ulang, tanpa alokasi)
+     * @return -1 jika cocok, atau tick pertama yang berbeda dari rekaman
+     */
+    public long verify(GameEngine engine) {
+        restart(engine);
+        for (int k = 0; k < keyframes.length; k++) {
+            stepTo(engine, keyframeTicks[k]);
+            if (!matches(engine, keyframes[k])) return keyframeTicks[k];
+        }
+        stepTo(engine, finalTick);
+        if (engine.getTick() != finalTick || engine.getScore() != finalScore) return engine.getTick();
+        return -1;
+    }
+
+    // Membandingkan state engine dengan keyframe byte per byte
+    private boolean matches(GameEngine engine, ByteBuffer keyframe) {
+        if (scratch.capacity() < engine.stateSize()) scratch = ByteBuffer.allocate(engine.stateSize() * 2);
+        scratch.clear();
+        engine.writeState(scratch);
+        scratch.flip();
+        return scratch.equals(keyframe); // Posisi keyframe tidak berubah
+    }
+
+    // Varint tanpa tanda: 7 bit per byte, bit tertinggi = masih ada byte berikutnya
+    static int writeVarint(byte[] target, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            target[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target[position++] = (byte) value;
+        return position;
+    }
+
+    static void writeVarint(ByteBuffer target, long value) {
+        while ((value & ~0x7FL) != 0) {
+            target.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        target.put((byte) value);
+    }
+
+    static long readVarint(ByteBuffer source) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = source.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    // Index arah searah jarum jam (0=U, 1=R, 2=D, 3=L)
+    static int directionIndex(char direction) {
+        return switch (direction) {
+            case 'R' -> 1;
+            case 'D' -> 2;
+            case 'L' -> 3;
+            default -> 0;
+        };
+    }
+
+    // Getters
+    public int getCols() { return cols; }
+    public int getRows() { return rows; }
+    public long getSeed() { return seed; }
+    public long getFinalTick() { return finalTick; }
+    public int getFinalScore() { return finalScore; }
+    public int getKeyframeInterval() { return keyframeInterval; }
+    public int getKeyframeCount() { return keyframes.length; }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: Replay file [--seek tick]");
+            System.exit(2);
+        }
+        Replay replay = load(Paths.get(args[0]));
+        GameEngine engine = replay.createEngine();
+
+        if (args.length > 2 && args[1].equals("--seek")) {
+            long start = System.nanoTime();
+            replay.seek(engine, Long.parseLong(args[2]));
+            System.out.printf("seek to tick %d: score %d, length %d, lives %d (%.2f ms)%n", engine.getTick(),
+                engine.getScore(), engine.getBody().length(), engine.getLives(), (System.nanoTime() - start) / 1e6);
+            return;
+        }
+
+        long start = System.nanoTime();
+        long mismatch = replay.verify(engine);
+        double millis = (System.nanoTime() - start) / 1e6;
+        if (mismatch >= 0) {
+            System.out.printf("MISMATCH at tick %d (recorded score %d, replayed %d)%n",
+                mismatch, replay.getFinalScore(), engine.getScore());
+            System.exit(1);
+        }
+        System.out.printf("verified: %d ticks (%.1f min at start speed), score %d, %d keyframes, %.2f ms%n",
+            replay.getFinalTick(), replay.getFinalTick() * GameEngine.START_DELAY / 60000.0,
+            replay.getFinalScore(), replay.getKeyframeCount(), millis);
+    }
+}
@@ -0,0 +1,163 @@
+package game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Perekam replay yang dipasang di GameEngine.
+ * Yang disimpan hanya seed dan perubahan arah per tick (varint, selisih tick dari perubahan sebelumnya),
+ * ditambah keyframe state penuh setiap beberapa tick supaya pemutar bisa loncat ke tick mana pun.
+ * Di jalur tick hanya ada satu perbandingan; byte ditulis saat arah berubah atau keyframe tiba.
+ */
+public class ReplayRecorder {
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 500; // Sekitar 75 detik pada kecepatan awal
+
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "replay-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final int keyframeInterval;
+    private int cols, rows;
+    private long seed;
+
+    // Perubahan arah: varint ((tick - tick perubahan sebelumnya) << 2 | arah)
+    private byte[] inputs = new byte[1024];
+    private int inputSize;
+    private long lastChangeTick;
+
+    // Keyframe: tick, posisi di inputs, tick perubahan terakhir, dan potongan state di keyframeData
+    private long[] keyframeTicks = new long[16];
+    private int[] keyframeInputOffsets = new int[16];
+    private long[] keyframeChangeTicks = new long[16];
+    private int[] keyframeDataOffsets = new int[17];
+    private byte[] keyframeData = new byte[4096];
+    private int keyframeCount;
+    private ByteBuffer scratch = ByteBuffer.allocate(1024);
+
+    public ReplayRecorder() {
+        this(Integer.getInteger("snake.replay.keyframe", DEFAULT_KEYFRAME_INTERVAL));
+    }
+
+    public ReplayRecorder(int keyframeInterval) {
+        this.keyframeInterval = Math.max(1, keyframeInterval);
+    }
+
+    /**
+     * Memulai rekaman baru (dipanggil GameEngine.reset)
+     * @param engine Engine yang baru di-reset
+     * @param seed State acak sebelum reset
+     */
+    void begin(GameEngine engine, long seed) {
+        this.cols = engine.getCols();
+        this.rows = engine.getRows();
+        this.seed = seed;
+        inputSize = 0;
+        lastChangeTick = 0;
+        keyframeCount = 0;
+    }
+
+    /**
+     * Dicatat setelah setiap step()
+     * @param engine Engine setelah tick
+     * @param turned true jika arah berubah di tick ini
+     */
+    void onStep(GameEngine engine, boolean turned) {
+        long tick = engine.getTick();
+        if (turned) {
+            ensureInputs(10);
+            inputSize = Replay.writeVarint(inputs, inputSize,
+                ((tick - lastChangeTick) << 2) | Replay.directionIndex(engine.getDirection()));
+            lastChangeTick = tick;
+        }
+        if (tick % keyframeInterval == 0) keyframe(engine);
+    }
+
+    // Menyimpan state penuh engine sebagai keyframe
+    private void keyframe(GameEngine engine) {
+        if (scratch.capacity() < engine.stateSize()) scratch = ByteBuffer.allocate(engine.stateSize() * 2);
+        scratch.clear();
+        engine.writeState(scratch);
+
+        if (keyframeCount == keyframeTicks.length) {
+            int capacity = keyframeCount * 2;
+            keyframeTicks = Arrays.copyOf(keyframeTicks, capacity);
+            keyframeInputOffsets = Arrays.copyOf(keyframeInputOffsets, capacity);
+            keyframeChangeTicks = Arrays.copyOf(keyframeChangeTicks, capacity);
+            keyframeDataOffsets = Arrays.copyOf(keyframeDataOffsets, capacity + 1);
+        }
+        int start = keyframeDataOffsets[keyframeCount];
+        if (keyframeData.length < start + scratch.position()) {
+            keyframeData = Arrays.copyOf(keyframeData, Math.max(keyframeData.length * 2, start + scratch.position()));
+        }
+        System.arraycopy(scratch.array(), 0, keyframeData, start, scratch.position());
+        keyframeTicks[keyframeCount] = engine.getTick();
+        keyframeInputOffsets[keyframeCount] = inputSize;
+        keyframeChangeTicks[keyframeCount] = lastChangeTick;
+        keyframeDataOffsets[++keyframeCount] = start + scratch.position();
+    }
+
+    private void ensureInputs(int extra) {
+        if (inputSize + extra > inputs.length) inputs = Arrays.copyOf(inputs, inputs.length * 2);
+    }
+
+    /**
+     * Method untuk menyusun file replay dari rekaman saat ini
+     * @param engine Engine yang direkam (tick dan skor akhir dicatat di header)
+     * @return buffer siap tulis (posisi 0)
+     */
+    public ByteBuffer encode(GameEngine engine) {
+        ByteBuffer buffer = ByteBuffer.allocate(64 + inputSize + keyframeDataOffsets[keyframeCount] + keyframeCount * 40);
+        buffer.putInt(Replay.MAGIC).put(Replay.VERSION);
+        Replay.writeVarint(buffer, cols);
+        Replay.writeVarint(buffer, rows);
+        Replay.writeVarint(buffer, keyframeInterval);
+        buffer.putLong(seed);
+        Replay.writeVarint(buffer, engine.getTick());
+        Replay.writeVarint(buffer, engine.getScore());
+
+        Replay.writeVarint(buffer, inputSize);
+        buffer.put(inputs, 0, inputSize);
+
+        Replay.writeVarint(buffer, keyframeCount);
+        for (int i = 0; i < keyframeCount; i++) {
+            int start = keyframeDataOffsets[i], length = keyframeDataOffsets[i + 1] - start;
+            Replay.writeVarint(buffer, keyframeTicks[i]);
+            Replay.writeVarint(buffer, keyframeInputOffsets[i]);
+            Replay.writeVarint(buffer, keyframeChangeTicks[i]);
+            Replay.writeVarint(buffer, length);
+            buffer.put(keyframeData, start, length);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Menyimpan replay ke file di thread terpisah lewat SaveGame.write() (isi disalin dulu, jadi rekaman boleh langsung dimulai lagi)
+     * @param engine Engine yang direkam
+     * @param file File tujuan
+     */
+    public void saveAsync(GameEngine engine, Path file) {
+        ByteBuffer data = encode(engine);
+        writer.execute(() -> {
+            try {
+                SaveGame.write(data, file); // File sementara + rename, replay lama tetap utuh jika gagal
+            } catch (IOException e) {
+                System.out.println("Failed to save replay " + file);
+            }
+        });
+    }
+
+    public int getInputBytes() {
+        return inputSize;
+    }
+
+    public int getKeyframeCount() {
+        return keyframeCount;
+    }
+}
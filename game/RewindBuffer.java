@@ -0,0 +1,68 @@
+package game;
+
+/**
+ * Buffer rewind: ring berukuran tetap berisi perubahan per tick, untuk mundur sampai 30 detik.
+ * Tiap entri berisi ekor yang dibuang di tick itu (kepala baru cukup dibuang lagi)
+ * dan state skalar sebelum tick (apel, skor, nyawa, efek, state acak).
+ * Tubuh ular tidak pernah disalin, jadi memori tetap sama berapa pun panjang ular.
+ * Isi entri ditulis dan dibaca oleh GameEngine.
+ */
+public class RewindBuffer {
+    public static final int SECONDS = 30;
+    static final int INTS = 19; // Field int per entri (lihat GameEngine.saveRewindState)
+    static final int LONGS = 5; // Field long per entri
+    static final int NO_TAIL = Integer.MIN_VALUE; // Tidak ada ekor dibuang di tick itu
+
+    final int capacity;
+    final int[] ints;
+    final long[] longs;
+    final int[] tails;
+    private int newest = -1; // Slot tick terakhir
+    private int size;
+
+    // Cukup untuk 30 detik pada kecepatan tercepat
+    public RewindBuffer() {
+        this(SECONDS * 1000 / GameEngine.MIN_DELAY);
+    }
+
+    public RewindBuffer(int capacity) {
+        this.capacity = capacity;
+        this.ints = new int[capacity * INTS];
+        this.longs = new long[capacity * LONGS];
+        this.tails = new int[capacity];
+    }
+
+    // Slot untuk tick baru; entri paling lama ditimpa jika ring penuh
+    int push() {
+        newest = newest + 1 == capacity ? 0 : newest + 1;
+        if (size < capacity) size++;
+        return newest;
+    }
+
+    // Mengambil slot tick terakhir untuk dibatalkan
+    int pop() {
+        int slot = newest;
+        newest = newest == 0 ? capacity - 1 : newest - 1;
+        size--;
+        return slot;
+    }
+
+    // Jumlah tick yang bisa dibatalkan
+    public int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void clear() {
+        newest = -1;
+        size = 0;
+    }
+
+    // Perkiraan memori buffer (tetap, tidak bergantung panjang ular)
+    public long memoryBytes() {
+        return (long) capacity * (INTS * 4 + LONGS * 8 + 4);
+    }
+}
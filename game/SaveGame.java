@@ -0,0 +1,109 @@
+package game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.zip.CRC32;
+
+/**
+ * Simpan / lanjutkan permainan dalam snapshot biner berversi.
+ * Format: magic "SNKS", versi, ukuran papan, panjang state, flag, state GameEngine.writeState(), CRC32.
+ * encode() dijalankan di thread pemilik engine (hanya menyalin state, beberapa mikrodetik),
+ * penulisan file lewat FileChannel boleh di thread lain supaya game loop tidak tertahan.
+ */
+public class SaveGame {
+    public static final Path FILE = Paths.get("savegame.bin");
+    private static final int MAGIC = 0x534E4B53; // "SNKS"
+    private static final short VERSION = 3; // Naikkan jika urutan writeState() berubah (3: flag sebelum state)
+    private static final int HEADER = 4 + 2 + 4 + 4 + 4;
+
+    public static final int FLAG_AUTOPILOT = 1; // Game pernah dimainkan autopilot: skor tidak masuk highscore
+
+    /**
+     * Method untuk menyalin state engine ke snapshot (panggil di thread pemilik engine)
+     * @param engine Engine yang disimpan
+     * @param flags Gabungan FLAG_*, dikembalikan lagi oleh read() sebelum state
+     * @return buffer siap tulis (posisi 0)
+     */
+    public static ByteBuffer encode(GameEngine engine, int flags) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(HEADER + 4 + engine.stateSize() + 8);
+        buffer.putInt(MAGIC).putShort(VERSION).putInt(engine.getCols()).putInt(engine.getRows());
+        int lengthAt = buffer.position();
+        buffer.putInt(0);
+        buffer.putInt(flags);
+        engine.writeState(buffer);
+        int length = buffer.position() - HEADER;
+        buffer.putInt(lengthAt, length);
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().flip().position(HEADER));
+        buffer.putLong(crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Method untuk menulis snapshot ke file sementara lalu rename atomik (file lama tidak pernah setengah jadi)
+     * @param snapshot Hasil encode()
+     * @param file File tujuan
+     * @throws IOException jika gagal menulis
+     */
+    public static void write(ByteBuffer snapshot, Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        ByteBuffer data = snapshot.duplicate();
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (data.hasRemaining()) channel.write(data);
+            channel.force(true); // Data harus sudah di disk sebelum rename
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Method untuk membaca dan memeriksa snapshot
+     * @param file File snapshot
+     * @param cols Jumlah kolom papan saat ini (snapshot papan lain ditolak)
+     * @param rows Jumlah baris papan saat ini
+     * @return flag (getInt()) diikuti state untuk GameEngine.readState(), atau null jika tidak ada / rusak / versi lain
+     */
+    public static ByteBuffer read(Path file, int cols, int rows) {
+        if (!Files.exists(file)) return null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER + 8 || size > Integer.MAX_VALUE) return null;
+            ByteBuffer buffer = ByteBuffer.allocateDirect((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) { }
+            buffer.flip();
+
+            if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) return null;
+            if (buffer.getInt() != cols || buffer.getInt() != rows) return null;
+            int length = buffer.getInt();
+            if (length < 0 || length != buffer.remaining() - 8) return null;
+
+            ByteBuffer state = buffer.slice().limit(length);
+            CRC32 crc = new CRC32();
+            crc.update(state.duplicate());
+            if (crc.getValue() != buffer.getLong(HEADER + length)) return null;
+            return state;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public static boolean exists() {
+        return Files.exists(FILE);
+    }
+
+    public static void delete() {
+        try {
+            Files.deleteIfExists(FILE);
+        } catch (IOException e) {
+            System.out.println("Failed to delete saved game");
+        }
+    }
+}
@@ -1,21 +1,79 @@
 package game;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
+// Penyimpanan highscore: dibaca sekali saat start, disimpan di memori,
+// dan ditulis ke disk oleh thread terpisah supaya thread paint tidak pernah menyentuh file
 public class ScoreManager {
-    private static final String FILE_NAME = "highscore.txt";
+    private static final Path FILE = Paths.get("highscore.txt");
+    private static final Path TEMP_FILE = Paths.get("highscore.txt.tmp");
+    private static final int NO_PENDING = -1;
+
+    private static volatile int highScore = load(); // Nilai cache yang dibaca di setiap frame
+    private static final AtomicInteger pendingScore = new AtomicInteger(NO_PENDING); // Nilai yang belum ditulis
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "highscore-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        // Pastikan nilai terakhir tetap tersimpan walaupun game ditutup sebelum writer selesai
+        Runtime.getRuntime().addShutdownHook(new Thread(ScoreManager::flush, "highscore-flush"));
+    }
 
     public static int getHighScore() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(FILE_NAME))) {
-            return Integer.parseInt(reader.readLine());
+        return highScore;
+    }
+
+    public static void saveHighScore(int score) {
+        highScore = score;
+        pendingScore.set(score);
+        writer.execute(ScoreManager::flush);
+    }
+
+    // Membaca file highscore sekali saja; file rusak atau tidak ada dianggap 0
+    private static int load() {
+        try (BufferedReader reader = Files.newBufferedReader(FILE, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            return line == null ? 0 : Integer.parseInt(line.trim());
         } catch (IOException | NumberFormatException e) {
             return 0;
         }
     }
 
-    public static void saveHighScore(int score) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(FILE_NAME))) {
-            writer.write(String.valueOf(score));
+    // Menulis nilai terbaru ke file sementara lalu rename atomik ke highscore.txt.
+    // Beberapa save yang berdekatan digabung jadi satu tulisan.
+    private static synchronized void flush() {
+        int score = pendingScore.getAndSet(NO_PENDING);
+        if (score == NO_PENDING) return;
+
+        byte[] data = String.valueOf(score).getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(TEMP_FILE,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) channel.write(buffer);
+            channel.force(true); // Data harus sudah di disk sebelum rename
+        } catch (IOException e) {
+            System.out.println("Failed to save highscore");
+            return;
+        }
+
+        try {
+            Files.move(TEMP_FILE, FILE, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            try {
+                Files.move(TEMP_FILE, FILE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException ex) {
+                System.out.println("Failed to save highscore");
+            }
         } catch (IOException e) {
             System.out.println("Failed to save highscore");
         }
@@ -1,57 +1,39 @@
 package game;
 
 import java.awt.*;
-import java.util.ArrayList;
+import java.awt.image.BufferedImage;
 
 public class Snake extends Entity implements Drawable { 
-    private ArrayList<Point> body = new ArrayList<>(); 
-    private int size = 1;
+    // Geometri arena (piksel): arena dimulai di (50,50), tiap sel 25px
+    public static final int BOARD_OFFSET = 50;
+    public static final int CELL_SIZE = 25;
+
+    private final SnakeBody body; // Tubuh ular milik GameEngine (Snake hanya menggambar)
     private Color color;
     private Color effectColor = null;
     private char direction = 'R'; 
 
-     // Konstruktor
-    public Snake(int x, int y, Color color) {
-        super(x, y);
-        this.color = color;
-        body.add(new Point(x, y));
-    }
+    // Sprite yang sedang dipakai, disimpan agar tidak lookup ke cache setiap frame
+    private BufferedImage headSprite, bodySprite;
+    private long headSpriteKey, bodySpriteKey;
+    private int spriteGeneration = -1;
+    private final Rectangle clip = new Rectangle(); // Dipakai ulang untuk membaca area clip
 
-    public Snake(int x, int y, Color color, int length) {
-        super(x, y);
+     // Konstruktor
+    public Snake(SnakeBody body, Color color) {
+        super(0, 0);
+        this.body = body;
         this.color = color;
-        this.size = length;
-        for (int i = 0; i < length; i++) {
-            body.add(new Point(x - i * 25, y)); // arah ke kiri
-        }
-    } 
-
-    // Method untuk menambah panjang ular
-    public void grow() {
-        size++;
-    }
-
-     // Method untuk menggerakkan ular
-    public void move(int dx, int dy) {
-        x += dx; // Update posisi x
-        y += dy; // Update posisi y
-        body.add(0, new Point(x, y));
-        while (body.size() > size) body.remove(body.size() - 1);
-        
-        // Update arah berdasarkan gerakan
-        if (dx > 0) direction = 'R';
-        else if (dx < 0) direction = 'L';
-        else if (dy < 0) direction = 'U';
-        else if (dy > 0) direction = 'D';
+        sync('R');
     }
 
-    // Method untuk mendeteksi tabrakan dengan tubuh sendiri
-    public boolean isColliding() {
-        // Cek apakah kepala bertabrakan dengan segmen tubuh lain
-        for (int i = 1; i < body.size(); i++) {
-            if (body.get(i).equals(body.get(0))) return true;
+    // Menyamakan posisi kepala dan arah dengan state engine terbaru
+    public void sync(char direction) {
+        this.direction = direction;
+        if (body.length() > 0) {
+            x = toPixel(SnakeBody.cellX(body.headCell()));
+            y = toPixel(SnakeBody.cellY(body.headCell()));
         }
-        return false;
     }
 
     //Setter untuk warna ular
@@ -66,66 +48,131 @@ public class Snake extends Entity implements Drawable {
 
     //Getter untuk panjang ular
      public int getLength() {
-        return size;
+        return body.length();
     }
+
+    // Konversi indeks sel ke koordinat piksel
+    public static int toPixel(int cell) {
+        return BOARD_OFFSET + cell * CELL_SIZE;
+    }
+
     /**
-     * Method untuk menggambar ular
+     * Method untuk menggambar ular.
+     * Setiap segmen cukup satu drawImage dari SpriteCache.
      * @param g Graphics context
      */
     @Override
     public void draw(Graphics g) {
-        Graphics2D g2d = (Graphics2D) g;
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        updateSprites();
+
+        // Saat repaint per region, segmen di luar area clip dilewati
+        // (lebar -1 menandakan tidak ada clip, getClipBounds tidak mengubah rectangle-nya)
+        clip.setBounds(0, 0, -1, -1);
+        g.getClipBounds(clip);
+        boolean clipped = clip.width >= 0;
+
+        // Gambar setiap segmen tubuh, dari kepala ke ekor
+        for (int i = 0; i < body.length(); i++) {
+            int cell = body.get(i);
+            int px = toPixel(SnakeBody.cellX(cell)) - SpriteCache.PADDING;
+            int py = toPixel(SnakeBody.cellY(cell)) - SpriteCache.PADDING;
+            if (clipped && !clip.intersects(px, py, SpriteCache.SIZE, SpriteCache.SIZE)) continue;
+            g.drawImage(i == 0 ? headSprite : bodySprite, px, py, null);
+        }
+    }
+
+    /**
+     * Method untuk menggambar ular di antara dua tick (mode game loop).
+     * Tiap segmen digeser dari posisi tick sebelumnya ke posisi sekarang.
+     * @param g Graphics context
+     * @param frame Snapshot state dari game loop
+     * @param alpha Progres menuju tick berikutnya (0..1)
+     */
+    public void drawInterpolated(Graphics g, FrameState frame, double alpha) {
+        direction = frame.direction;
+        updateSprites();
+
+        // Segmen di luar area clip (viewport) dilewati, sama seperti draw()
+        clip.setBounds(0, 0, -1, -1);
+        g.getClipBounds(clip);
+        boolean clipped = clip.width >= 0;
+
+        for (int i = 0; i < frame.length; i++) {
+            int cell = frame.cells[i];
+            int previous = frame.previousCell(i);
+            int px = lerp(toPixel(SnakeBody.cellX(previous)), toPixel(SnakeBody.cellX(cell)), alpha);
+            int py = lerp(toPixel(SnakeBody.cellY(previous)), toPixel(SnakeBody.cellY(cell)), alpha);
+            px -= SpriteCache.PADDING;
+            py -= SpriteCache.PADDING;
+            if (clipped && !clip.intersects(px, py, SpriteCache.SIZE, SpriteCache.SIZE)) continue;
+            g.drawImage(i == 0 ? headSprite : bodySprite, px, py, null);
+        }
+    }
+
+    private static int lerp(int from, int to, double alpha) {
+        return (int) Math.round(from + (to - from) * alpha);
+    }
+
+    // Ambil ulang sprite hanya jika warna, efek, arah, atau tema berubah
+    private void updateSprites() {
+        int generation = SpriteCache.getGeneration();
+        long headKey = SpriteCache.segmentKey(color, effectColor, true, direction);
+        long bodyKey = SpriteCache.segmentKey(color, null, false, direction);
+        if (generation != spriteGeneration || headKey != headSpriteKey || bodyKey != bodySpriteKey) {
+            headSprite = SpriteCache.snakeSegment(color, effectColor, true, direction);
+            bodySprite = SpriteCache.snakeSegment(color, null, false, direction);
+            headSpriteKey = headKey;
+            bodySpriteKey = bodyKey;
+            spriteGeneration = generation;
+        }
+    }
+
+    /**
+     * Method untuk menggambar satu segmen ular (dipakai SpriteCache saat membuat sprite)
+     * @param g2d Graphics context
+     * @param x Posisi x segmen
+     * @param y Posisi y segmen
+     * @param fill Warna isi segmen
+     * @param color Warna dasar ular (untuk border)
+     * @param head true jika segmen kepala
+     * @param direction Arah gerak ular
+     */
+    static void paintSegment(Graphics2D g2d, int x, int y, Color fill, Color color, boolean head, char direction) {
+        // Tentukan gradient warna
+        GradientPaint gradient = new GradientPaint(
+            x, y, fill.brighter(),
+            x + 20, y + 20, fill.darker()
+        );
+        
+        g2d.setPaint(gradient);
+        g2d.fillRoundRect(x, y, 20, 20, 5, 5);
+        
+        //border
+        g2d.setColor(color.darker().darker());
+        g2d.setStroke(new BasicStroke(1.5f));
+        g2d.drawRoundRect(x, y, 20, 20, 5, 5);
         
-        // Gambar setiap segmen tubuh
-        for (int i = 0; i < body.size(); i++) {
-            Point p = body.get(i);
+        // Gambar fitur kepala (hanya untuk segmen pertama)
+        if (head) {
+            // Mata
+            g2d.setColor(Color.WHITE);
+            g2d.fillOval(x + 4, y + 5, 6, 6);
+            g2d.fillOval(x + 10, y + 5, 6, 6);
+            g2d.setColor(Color.BLACK);
+            g2d.fillOval(x + 5, y + 6, 3, 3); //pupil
+            g2d.fillOval(x + 11, y + 6, 3, 3);
             
-            // Tentukan gradient warna
-            GradientPaint gradient;
-            if (i == 0 && effectColor != null) {
-                // Jika kepala dan ada efek khusus
-                gradient = new GradientPaint(
-                    p.x, p.y, effectColor.brighter(),
-                    p.x + 20, p.y + 20, effectColor.darker()
+            // Lidah (hanya saat bergerak horizontal)
+            if (direction == 'L' || direction == 'R') {
+                g2d.setColor(new Color(220, 50, 50));
+                g2d.fillRoundRect(
+                    direction == 'R' ? x + 20 : x - 5, 
+                    y + 8, 
+                    5, 
+                    4, 
+                    2, 
+                    2
                 );
-            } else {
-                gradient = new GradientPaint(
-                    p.x, p.y, color.brighter(),
-                    p.x + 20, p.y + 20, color.darker()
-                );
-            }
-            
-            g2d.setPaint(gradient);
-            g2d.fillRoundRect(p.x, p.y, 20, 20, 5, 5);
-            
-            //border
-            g2d.setColor(color.darker().darker());
-            g2d.setStroke(new BasicStroke(1.5f));
-            g2d.drawRoundRect(p.x, p.y, 20, 20, 5, 5);
-            
-            // Gambar fitur kepala (hanya untuk segmen pertama)
-            if (i == 0) {
-                // Mata
-                g2d.setColor(Color.WHITE);
-                g2d.fillOval(p.x + 4, p.y + 5, 6, 6);
-                g2d.fillOval(p.x + 10, p.y + 5, 6, 6);
-                g2d.setColor(Color.BLACK);
-                g2d.fillOval(p.x + 5, p.y + 6, 3, 3); //pupil
-                g2d.fillOval(p.x + 11, p.y + 6, 3, 3);
-                
-                // Lidah (hanya saat bergerak horizontal)
-                if (direction == 'L' || direction == 'R') {
-                    g2d.setColor(new Color(220, 50, 50));
-                    g2d.fillRoundRect(
-                        direction == 'R' ? p.x + 20 : p.x - 5, 
-                        p.y + 8, 
-                        5, 
-                        4, 
-                        2, 
-                        2
-                    );
-                }
             }
         }
     }
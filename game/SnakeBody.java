@@ -0,0 +1,123 @@
+package game;
+
+// Tubuh ular dalam bentuk ring buffer berisi indeks sel (bukan Point),
+// ditambah peta okupansi supaya cek tabrakan cukup O(1).
+// Peta okupansi bisa milik sendiri atau dibagi dengan ular lain (mode arena).
+public class SnakeBody {
+    private int[] cells; // Ring buffer sel yang sudah di-pack, kepala ada di index head
+    private int head = 0; // Posisi kepala di dalam ring buffer
+    private int length = 0; // Jumlah segmen yang sedang ada
+    private final CellOccupancy occupancy; // Jumlah segmen per sel grid
+
+    public SnakeBody(int cols, int rows, int initialCapacity) {
+        this(new CellOccupancy(cols, rows, initialCapacity), initialCapacity);
+    }
+
+    // Tubuh yang mencatat segmennya di peta okupansi bersama
+    public SnakeBody(CellOccupancy occupancy, int initialCapacity) {
+        this.occupancy = occupancy;
+        int capacity = 1;
+        while (capacity < initialCapacity) capacity <<= 1; // Kapasitas selalu pangkat 2
+        this.cells = new int[capacity];
+    }
+
+    // Menggabungkan koordinat sel (boleh negatif / di luar arena) menjadi satu int
+    public static int pack(int cellX, int cellY) {
+        return (cellY << 16) | (cellX & 0xFFFF);
+    }
+
+    public static int cellX(int packed) {
+        return (short) packed;
+    }
+
+    public static int cellY(int packed) {
+        return packed >> 16;
+    }
+
+    // Menambah segmen baru sebagai kepala
+    public void addHead(int cellX, int cellY) {
+        if (length == cells.length) grow();
+        head = (head - 1) & (cells.length - 1);
+        cells[head] = pack(cellX, cellY);
+        length++;
+        occupancy.add(cellX, cellY);
+    }
+
+    // Membuang segmen paling belakang (ekor)
+    public void removeTail() {
+        if (length == 0) return;
+        int tail = cells[(head + length - 1) & (cells.length - 1)];
+        length--;
+        occupancy.remove(cellX(tail), cellY(tail));
+    }
+
+    // Menambah segmen di belakang ekor (dipakai rewind untuk mengembalikan ekor yang dibuang)
+    public void addTail(int cellX, int cellY) {
+        if (length == cells.length) grow();
+        cells[(head + length) & (cells.length - 1)] = pack(cellX, cellY);
+        length++;
+        occupancy.add(cellX, cellY);
+    }
+
+    // Membuang kepala (dipakai rewind), segmen berikutnya menjadi kepala
+    public void removeHead() {
+        if (length == 0) return;
+        int cell = cells[head];
+        head = (head + 1) & (cells.length - 1);
+        length--;
+        occupancy.remove(cellX(cell), cellY(cell));
+    }
+
+    // Mengosongkan tubuh tanpa membuat buffer baru (dipakai saat respawn)
+    public void clear() {
+        while (length > 0) removeTail();
+        head = 0;
+    }
+
+    /**
+     * Mengambil segmen ke-i dari kepala ke ekor
+     * @param i 0 = kepala, length - 1 = ekor
+     * @return sel dalam bentuk packed
+     */
+    public int get(int i) {
+        return cells[(head + i) & (cells.length - 1)];
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public int headCell() {
+        return cells[head];
+    }
+
+    public int tailCell() {
+        return get(length - 1);
+    }
+
+    public CellOccupancy getOccupancy() {
+        return occupancy;
+    }
+
+    // Cek apakah sel sedang ditempati tubuh ular (atau ular lain yang berbagi peta okupansi)
+    public boolean isOccupied(int cellX, int cellY) {
+        return occupancy.count(cellX, cellY) > 0;
+    }
+
+    // Kepala menabrak tubuh jika sel kepala ditempati lebih dari satu segmen.
+    // Sel di luar arena tidak dicatat karena di sana ular sudah dianggap keluar arena.
+    public boolean isHeadColliding() {
+        if (length == 0) return false;
+        return occupancy.count(cellX(cells[head]), cellY(cells[head])) > 1;
+    }
+
+    // Menggandakan kapasitas ring buffer (hanya terjadi saat ular memanjang melewati kapasitas)
+    private void grow() {
+        int[] bigger = new int[cells.length * 2];
+        for (int i = 0; i < length; i++) {
+            bigger[i] = get(i);
+        }
+        cells = bigger;
+        head = 0;
+    }
+}
@@ -0,0 +1,338 @@
+package game;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Tahap fan-out penonton: game loop (ArenaServer) meng-encode setiap tick sekali ke buffer direct,
+ * lalu publish() ke ring bernomor urut; thread hub sendiri menulis frame yang sama ke semua penonton
+ * (gathering write langsung dari ring, tanpa salinan atau antrian per penonton).
+ * - Penonton baru mulai dari keyframe terbaru, lalu delta yang tersimpan setelahnya.
+ * - Penonton yang sudah sinkron melewati keyframe berkala (cukup delta).
+ * - Penonton lambat yang tertinggal lebih dari satu interval keyframe lompat ke keyframe terbaru;
+ *   yang macet di tengah frame sampai ring hampir penuh diputus.
+ * Ring menyimpan frame sejak keyframe terbaru; frame lama dikembalikan ke pool oleh thread hub,
+ * jadi game loop hanya membayar encode dan satu wakeup selector per tick.
+ *
+ * Contoh: java -cp out game.ArenaServer --spectator-port 7778
+ */
+public class SpectatorHub implements Runnable {
+    public static final int DEFAULT_PORT = 7778;
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 50; // Tick antar keyframe (5 detik pada 100 ms)
+    private static final int GATHER = 16; // Frame per gathering write
+    private static final int BUFFER_SIZE = 16 * 1024; // Ukuran minimal buffer pool (delta biasa muat)
+    private static final int SEND_BUFFER = 64 * 1024; // Batasi antrian kernel juga, supaya penonton lambat cepat ketahuan
+
+    private final int keyframeInterval;
+    private final int mask;
+    // Ring frame, ditulis producer (game loop) dan dibaca thread hub; slot hanya ditimpa setelah di-retire
+    private final ByteBuffer[] ring;
+    private final long[] slotSeqs; // Nomor urut frame di tiap slot (beda = lubang, frame dibuang saat ring penuh)
+    private final boolean[] slotKeyframes;
+    private final ArrayBlockingQueue<ByteBuffer> pool; // Buffer yang sudah di-retire, dipakai lagi oleh claim()
+
+    private volatile long published = -1; // Frame terakhir yang boleh dibaca thread hub
+    private volatile long lastKeyframe = -1;
+    private volatile long retired = -1; // Frame sampai nomor ini sudah dikembalikan ke pool
+    private long nextSeq; // Hanya producer
+    private boolean forceKeyframe; // Hanya producer: ada frame yang dibuang, penonton perlu keyframe baru
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    private final ByteBuffer[] views = new ByteBuffer[GATHER];
+    private final long[] viewSeqs = new long[GATHER];
+    private final ByteBuffer scratch = ByteBuffer.allocate(256); // Data dari penonton diabaikan
+    private volatile boolean running = true;
+
+    // Statistik sejak laporan terakhir (hanya thread hub)
+    private long bytesSent, framesSent, skips, stalled, rounds, roundNanos;
+
+    // Posisi satu penonton di ring: frame berikutnya dan byte yang sudah terkirim dari frame itu
+    private static class Subscriber {
+        final SocketChannel channel;
+        final SelectionKey key;
+        long next = -1; // -1 = menunggu keyframe pertama
+        int offset;
+        boolean synced; // Sudah menerima keyframe, keyframe berkala dilewati
+        boolean blocked; // Socket penuh, menunggu OP_WRITE
+
+        Subscriber(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+    }
+
+    /**
+     * @param port Port TCP penonton, 0 = port bebas (lihat getPort)
+     * @param keyframeInterval Tick antar keyframe; ring menampung empat interval
+     */
+    public SpectatorHub(int port, int keyframeInterval) throws IOException {
+        this.keyframeInterval = Math.max(1, keyframeInterval);
+        int capacity = Integer.highestOneBit(this.keyframeInterval * 4 - 1) << 1;
+        this.mask = capacity - 1;
+        this.ring = new ByteBuffer[capacity];
+        this.slotSeqs = new long[capacity];
+        Arrays.fill(slotSeqs, -1);
+        this.slotKeyframes = new boolean[capacity];
+        this.pool = new ArrayBlockingQueue<>(capacity);
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(port), 4096);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Method untuk mengambil buffer kosong dari pool (dipanggil producer sebelum encode)
+     * @param size Ukuran frame yang akan ditulis
+     * @return buffer direct dengan sisa ruang minimal size
+     */
+    public ByteBuffer claim(int size) {
+        ByteBuffer buffer = pool.poll();
+        if (buffer == null || buffer.capacity() < size) {
+            buffer = ByteBuffer.allocateDirect(Math.max(BUFFER_SIZE, Integer.highestOneBit(size - 1) << 1));
+        }
+        return buffer.clear();
+    }
+
+    // true jika producer harus publish keyframe setelah delta tick ini
+    public boolean needsKeyframe() {
+        return forceKeyframe || lastKeyframe < 0 || nextSeq - lastKeyframe > keyframeInterval;
+    }
+
+    /**
+     * Method untuk menyerahkan frame ke hub (producer tidak boleh menyentuh buffer ini lagi)
+     * @param frame Hasil encode dari claim(), sudah di-flip
+     * @param keyframe true jika frame KEYFRAME
+     */
+    public void publish(ByteBuffer frame, boolean keyframe) {
+        long seq = nextSeq++;
+        if (seq - retired > ring.length) {
+            // Ring penuh (thread hub tertahan): frame dibuang, nomornya menjadi lubang, penonton menunggu keyframe
+            forceKeyframe = true;
+            pool.offer(frame);
+        } else {
+            int slot = (int) (seq & mask);
+            ring[slot] = frame;
+            slotSeqs[slot] = seq;
+            slotKeyframes[slot] = keyframe;
+            if (keyframe) {
+                lastKeyframe = seq;
+                forceKeyframe = false;
+            }
+            published = seq; // Tulis volatile: isi slot terlihat lengkap oleh thread hub
+        }
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        long nextReport = System.nanoTime() + 5_000_000_000L;
+        try {
+            while (running) {
+                selector.select(100);
+                long start = System.nanoTime();
+                handleKeys();
+                long head = published;
+                for (int i = subscribers.size() - 1; i >= 0; i--) {
+                    Subscriber subscriber = subscribers.get(i);
+                    if (!subscriber.blocked) pump(subscriber, head);
+                }
+                retire(head);
+                roundNanos += System.nanoTime() - start;
+                rounds++;
+                if (start >= nextReport) {
+                    printStats();
+                    nextReport = start + 5_000_000_000L;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Spectator hub stopped: " + e.getMessage());
+        } finally {
+            for (Subscriber subscriber : subscribers) closeQuietly(subscriber.channel);
+            closeQuietly(server);
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    public void close() {
+        running = false;
+        selector.wakeup();
+    }
+
+    private void handleKeys() throws IOException {
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            if (!key.isValid()) continue;
+            if (key.isAcceptable()) {
+                SocketChannel channel;
+                while ((channel = server.accept()) != null) {
+                    channel.configureBlocking(false);
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                    channel.setOption(StandardSocketOptions.SO_SNDBUF, SEND_BUFFER);
+                    Subscriber subscriber = new Subscriber(channel, channel.register(selector, SelectionKey.OP_READ));
+                    subscriber.key.attach(subscriber);
+                    subscribers.add(subscriber);
+                }
+                continue;
+            }
+            Subscriber subscriber = (Subscriber) key.attachment();
+            try {
+                if (key.isReadable()) {
+                    scratch.clear();
+                    if (subscriber.channel.read(scratch) < 0) {
+                        disconnect(subscriber);
+                        continue;
+                    }
+                }
+                if (key.isWritable()) {
+                    subscriber.blocked = false;
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+            } catch (IOException e) {
+                disconnect(subscriber);
+            }
+        }
+    }
+
+    // Menulis frame yang tersedia ke satu penonton sampai habis atau socket penuh
+    private void pump(Subscriber subscriber, long head) {
+        try {
+            while (true) {
+                if (subscriber.offset == 0) {
+                    long keyframe = lastKeyframe;
+                    if (subscriber.next < 0) {
+                        if (keyframe < 0) return; // Belum ada keyframe sama sekali
+                        subscriber.next = keyframe; // Penonton baru: keyframe terbaru + delta setelahnya
+                    } else if (subscriber.next <= head && keyframe > subscriber.next
+                            && (head - subscriber.next > keyframeInterval
+                            || slotSeqs[(int) (subscriber.next & mask)] != subscriber.next)) {
+                        subscriber.next = keyframe; // Terlalu tertinggal atau frame hilang: lompat ke keyframe
+                        subscriber.synced = false;
+                        skips++;
+                    }
+                }
+
+                // Kumpulkan frame berurutan; keyframe dilewati penonton yang sudah sinkron
+                int count = 0;
+                long seq = subscriber.next;
+                while (count < GATHER && seq <= head) {
+                    int slot = (int) (seq & mask);
+                    if (slotSeqs[slot] != seq) break; // Lubang: tunggu keyframe berikutnya
+                    // Penonton yang sudah pantas lompat: cukup selesaikan frame ini, jangan ambil frame lama lagi
+                    if (count > 0 && head - seq > keyframeInterval && lastKeyframe > seq) break;
+                    boolean startOfFrame = count > 0 || subscriber.offset == 0;
+                    if (slotKeyframes[slot] && subscriber.synced && startOfFrame) {
+                        if (count == 0) subscriber.next = seq + 1;
+                        else break; // Dilewati setelah frame sebelumnya terkirim
+                        seq++;
+                        continue;
+                    }
+                    ByteBuffer view = ring[slot];
+                    view.position(count == 0 ? subscriber.offset : 0);
+                    views[count] = view;
+                    viewSeqs[count++] = seq++;
+                }
+                if (count == 0) return;
+
+                long written = subscriber.channel.write(views, 0, count);
+                bytesSent += written;
+                for (int i = 0; i < count; i++) {
+                    ByteBuffer view = views[i];
+                    if (view.hasRemaining()) {
+                        subscriber.next = viewSeqs[i];
+                        subscriber.offset = view.position();
+                        break;
+                    }
+                    if (slotKeyframes[(int) (viewSeqs[i] & mask)]) subscriber.synced = true;
+                    subscriber.next = viewSeqs[i] + 1;
+                    subscriber.offset = 0;
+                    framesSent++;
+                }
+                for (int i = 0; i < count; i++) views[i] = null;
+                if (subscriber.offset > 0 || subscriber.next <= viewSeqs[count - 1]) {
+                    // Socket penuh: tunggu OP_WRITE, tidak ada yang diantrikan
+                    subscriber.blocked = true;
+                    subscriber.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            disconnect(subscriber);
+        }
+    }
+
+    // Frame sebelum keyframe terbaru yang tidak dipakai penonton mana pun dikembalikan ke pool
+    private void retire(long head) {
+        long keyframe = lastKeyframe;
+        long limit = Math.min(keyframe, head + 1);
+        for (int i = subscribers.size() - 1; i >= 0; i--) {
+            Subscriber subscriber = subscribers.get(i);
+            if (subscriber.next < 0) continue;
+            if (subscriber.offset > 0) {
+                // Macet di tengah frame: frame itu harus selesai, jadi ring tertahan; lewat batas diputus
+                if (head - subscriber.next > ring.length - 2L * keyframeInterval) {
+                    stalled++;
+                    disconnect(subscriber);
+                    continue;
+                }
+            } else if (head - subscriber.next > keyframeInterval && keyframe > subscriber.next) {
+                continue; // Akan lompat ke keyframe, frame lamanya tidak dibutuhkan
+            }
+            limit = Math.min(limit, subscriber.next);
+        }
+        long seq = retired;
+        while (seq + 1 < limit) {
+            seq++;
+            int slot = (int) (seq & mask);
+            if (slotSeqs[slot] == seq) {
+                pool.offer(ring[slot]);
+                ring[slot] = null;
+                slotSeqs[slot] = -1; // Penonton yang masih menunjuk frame ini akan lompat ke keyframe
+            }
+        }
+        retired = seq; // Tulis volatile: slot boleh ditimpa producer
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) return;
+        subscriber.key.cancel();
+        closeQuietly(subscriber.channel);
+    }
+
+    private static void closeQuietly(java.io.Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void printStats() {
+        if (rounds == 0) return;
+        System.out.printf("spectators: %d connected, %,d frames, %.1f MB sent, %d dropped to keyframe,"
+                + " %d stalled, round %.1f us%n",
+            subscribers.size(), framesSent, bytesSent / 1e6, skips, stalled, roundNanos / 1e3 / rounds);
+        bytesSent = framesSent = skips = stalled = rounds = roundNanos = 0;
+    }
+}
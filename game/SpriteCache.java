@@ -0,0 +1,98 @@
+package game;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+// Atlas sprite untuk segmen ular dan apel.
+// Tiap sprite dirender sekali (lazy) lalu cukup di-drawImage setiap frame.
+public class SpriteCache {
+    public static final int PADDING = 6; // Ruang ekstra untuk border, lidah, dan tangkai apel
+    public static final int SIZE = 20 + PADDING * 2; // Ukuran sprite (segmen 20px + padding)
+
+    private static final long KIND_SEGMENT = 1L << 62;
+    private static final long KIND_APPLE = 2L << 62;
+    private static final long HEAD_FLAG = 1L << 61;
+    private static final long EFFECT_FLAG = 1L << 58;
+
+    private static final Map<Long, BufferedImage> sprites = new HashMap<>();
+    private static int generation = 0; // Naik setiap cache dikosongkan
+
+    /**
+     * Kunci sprite segmen ular berdasarkan warna tema, warna efek, peran segmen, dan arah
+     * @param color Warna ular
+     * @param effectColor Warna efek khusus (hanya dipakai kepala), boleh null
+     * @param head true jika segmen kepala
+     * @param direction Arah gerak (U/D/L/R), hanya dipakai kepala
+     * @return kunci unik sprite
+     */
+    public static long segmentKey(Color color, Color effectColor, boolean head, char direction) {
+        long key = KIND_SEGMENT | (color.getRGB() & 0xFFFFFFL);
+        if (head) {
+            key |= HEAD_FLAG | ((long) directionIndex(direction) << 59);
+            if (effectColor != null) key |= EFFECT_FLAG | ((effectColor.getRGB() & 0xFFFFFFL) << 24);
+        }
+        return key;
+    }
+
+    // Kunci sprite apel berdasarkan jenis dan warnanya
+    public static long appleKey(int type, Color color) {
+        return KIND_APPLE | ((long) type << 24) | (color.getRGB() & 0xFFFFFFL);
+    }
+
+    // Mengambil (atau merender) sprite segmen ular
+    public static BufferedImage snakeSegment(Color color, Color effectColor, boolean head, char direction) {
+        long key = segmentKey(color, effectColor, head, direction);
+        BufferedImage sprite = sprites.get(key);
+        if (sprite == null) {
+            sprite = createSprite();
+            Graphics2D g2d = sprite.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            Color fill = head && effectColor != null ? effectColor : color;
+            Snake.paintSegment(g2d, PADDING, PADDING, fill, color, head, direction);
+            g2d.dispose();
+            sprites.put(key, sprite);
+        }
+        return sprite;
+    }
+
+    // Mengambil (atau merender) sprite apel
+    public static BufferedImage apple(int type, Color color) {
+        long key = appleKey(type, color);
+        BufferedImage sprite = sprites.get(key);
+        if (sprite == null) {
+            sprite = createSprite();
+            Graphics2D g2d = sprite.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            Apple.paintApple(g2d, PADDING, PADDING, type, color);
+            g2d.dispose();
+            sprites.put(key, sprite);
+        }
+        return sprite;
+    }
+
+    // Mengosongkan cache, dipanggil saat tema berubah
+    public static void clear() {
+        sprites.clear();
+        generation++;
+    }
+
+    // Dipakai Snake/Apple untuk tahu apakah sprite yang mereka simpan masih valid
+    public static int getGeneration() {
+        return generation;
+    }
+
+    private static BufferedImage createSprite() {
+        return new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    private static int directionIndex(char direction) {
+        return switch (direction) {
+            case 'U' -> 0;
+            case 'D' -> 1;
+            case 'L' -> 2;
+            default -> 3;
+        };
+    }
+}
@@ -0,0 +1,375 @@
+package game;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Turnamen headless: ribuan game ber-seed dimainkan beberapa strategi bot secara paralel (ForkJoinPool).
+ * Game ke-i memakai seed yang sama untuk setiap strategi, jadi perbandingan antar strategi adil.
+ * Tiap thread punya engine dan strategi sendiri (tidak ada state bersama di jalur tick),
+ * sehingga throughput naik hampir linear dengan jumlah core.
+ * Rata-rata dan persentil dicetak berkala selama turnamen berjalan; hasil per game bisa ditulis ke CSV.
+ *
+ * Contoh: java -cp out game.Tournament --games 10000 --strategies autopilot,greedy,random --csv games.csv
+ */
+public class Tournament {
+    private static final int GRAIN = 4; // Game per tugas terkecil (game panjang/pendek diseimbangkan work stealing)
+    private static final char[] DIRECTIONS = {'U', 'R', 'D', 'L'};
+    private static final int[] DX = {0, 1, 0, -1};
+    private static final int[] DY = {-1, 0, 1, 0};
+
+    // Strategi bot: satu instance per thread, dipanggil sebelum setiap tick
+    public interface Strategy {
+        char decide(GameEngine engine);
+
+        // Dipanggil di awal setiap game (strategi acak memakai seed game supaya hasilnya bisa diulang)
+        default void begin(GameEngine engine, long seed) { }
+    }
+
+    /**
+     * Method untuk membuat strategi dari namanya
+     * @param name autopilot, weighted[:a/s/t/p], greedy, random, atau cycle
+     * @param cols Jumlah kolom papan
+     * @param rows Jumlah baris papan
+     * @return strategi baru (tidak boleh dipakai dua thread)
+     */
+    static Strategy createStrategy(String name, int cols, int rows) {
+        if (name.startsWith("weighted")) { // Autopilot berbobot, bobot hasil GeneticTuner setelah ':'
+            double[] weights = name.startsWith("weighted:")
+                ? GeneticTuner.parseWeights(name.substring("weighted:".length()))
+                : GeneticTuner.DEFAULT_WEIGHTS.clone();
+            Autopilot pilot = new Autopilot(cols, rows);
+            return engine -> pilot.decide(engine, weights);
+        }
+        return switch (name) {
+            case "autopilot" -> new Autopilot(cols, rows)::decide; // BFS + ikut ekor
+            case "greedy" -> Tournament::greedy; // Langsung ke apel, hanya menghindari tabrakan langkah berikutnya
+            case "random" -> new RandomTurns(); // Input skrip: belok acak
+            case "cycle" -> { // Input skrip: siklus Hamilton (hanya baris genap)
+                if (rows % 2 != 0) throw new IllegalArgumentException("cycle needs an even row count");
+                char[] route = CycleRoute.directions(cols, rows);
+                yield engine -> route[engine.getHeadY() * engine.getCols() + engine.getHeadX()];
+            }
+            default -> throw new IllegalArgumentException("Unknown strategy " + name);
+        };
+    }
+
+    // Arah tetangga bebas yang paling mendekatkan kepala ke apel
+    static char greedy(GameEngine engine) {
+        char current = engine.getDirection();
+        int reverse = Replay.directionIndex(GameEngine.opposite(current));
+        int best = -1, bestDistance = Integer.MAX_VALUE;
+        for (int d = 0; d < 4; d++) {
+            int x = engine.getHeadX() + DX[d], y = engine.getHeadY() + DY[d];
+            if (d == reverse || x < 0 || y < 0 || x >= engine.getCols() || y >= engine.getRows()) continue;
+            if (engine.getBody().isOccupied(x, y)) continue;
+            int distance = Math.abs(x - engine.getAppleX()) + Math.abs(y - engine.getAppleY());
+            if (distance < bestDistance) {
+                best = d;
+                bestDistance = distance;
+            }
+        }
+        return best >= 0 ? DIRECTIONS[best] : current;
+    }
+
+    // Belok ke arah acak rata-rata sekali tiap 8 tick
+    static class RandomTurns implements Strategy {
+        private final GameRandom random = new GameRandom(0);
+
+        @Override
+        public void begin(GameEngine engine, long seed) {
+            random.setState(~seed); // Urutan acak sendiri, tidak sama dengan urutan apel
+        }
+
+        @Override
+        public char decide(GameEngine engine) {
+            return random.nextInt(8) == 0 ? DIRECTIONS[random.nextInt(4)] : engine.getDirection();
+        }
+    }
+
+    /**
+     * Statistik berjalan satu strategi, boleh ditambah dari banyak thread.
+     * Persentil selama turnamen diambil dari histogram log-linear (galat relatif paling banyak 1/16),
+     * persentil akhir dihitung tepat dari hasil per game.
+     */
+    static class Stats {
+        private static final int SUB_BUCKETS = 16;
+
+        final LongAdder games = new LongAdder();
+        final LongAdder scoreTotal = new LongAdder();
+        final LongAdder levelTotal = new LongAdder();
+        final LongAdder applesTotal = new LongAdder();
+        final LongAdder specialTotal = new LongAdder();
+        final LongAdder ticksTotal = new LongAdder();
+        final AtomicLongArray scoreHistogram = new AtomicLongArray(bucket(Integer.MAX_VALUE) + 1);
+
+        void add(int score, int level, int apples, int special, long ticks) {
+            scoreHistogram.incrementAndGet(bucket(Math.max(0, score)));
+            scoreTotal.add(score);
+            levelTotal.add(level);
+            applesTotal.add(apples);
+            specialTotal.add(special);
+            ticksTotal.add(ticks);
+            games.increment(); // Terakhir: jumlah game tidak mendahului isinya
+        }
+
+        // Bucket: nilai < 16 tepat, di atasnya 16 bucket per pangkat dua
+        static int bucket(int value) {
+            if (value < SUB_BUCKETS) return value;
+            int exponent = 31 - Integer.numberOfLeadingZeros(value);
+            return (exponent - 3) * SUB_BUCKETS + ((value >>> (exponent - 4)) & (SUB_BUCKETS - 1));
+        }
+
+        // Nilai terkecil di bucket
+        static int bucketFloor(int bucket) {
+            if (bucket < SUB_BUCKETS) return bucket;
+            int exponent = bucket / SUB_BUCKETS + 3;
+            return (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - 4);
+        }
+
+        // Persentil skor dari histogram (perkiraan, untuk laporan berjalan)
+        int approximateScore(double percentile) {
+            long total = 0;
+            for (int i = 0; i < scoreHistogram.length(); i++) total += scoreHistogram.get(i);
+            long rank = (long) Math.ceil(percentile / 100 * total);
+            long seen = 0;
+            for (int i = 0; i < scoreHistogram.length(); i++) {
+                seen += scoreHistogram.get(i);
+                if (seen >= rank && seen > 0) return bucketFloor(i);
+            }
+            return 0;
+        }
+    }
+
+    private final int cols, rows;
+    private final String[] strategyNames;
+    private final int games;
+    private final long seed;
+    private final int maxTicks;
+    private final Stats[] stats;
+    // Hasil per game: [strategi][game], tiap slot ditulis tepat satu tugas
+    private final int[][] scores, levels, apples, specials;
+    private final long[][] ticks;
+    private final ThreadLocal<Worker> workers;
+
+    public Tournament(int cols, int rows, String[] strategyNames, int games, long seed, int maxTicks) {
+        this.cols = cols;
+        this.rows = rows;
+        this.strategyNames = strategyNames;
+        this.games = games;
+        this.seed = seed;
+        this.maxTicks = maxTicks;
+        int count = strategyNames.length;
+        this.stats = new Stats[count];
+        for (int s = 0; s < count; s++) stats[s] = new Stats();
+        this.scores = new int[count][games];
+        this.levels = new int[count][games];
+        this.apples = new int[count][games];
+        this.specials = new int[count][games];
+        this.ticks = new long[count][games];
+        for (String name : strategyNames) createStrategy(name, cols, rows); // Nama salah gagal sebelum mulai
+        this.workers = ThreadLocal.withInitial(Worker::new);
+    }
+
+    // Engine dan strategi milik satu thread, dipakai ulang untuk semua game di thread itu
+    private class Worker {
+        final GameEngine engine = new GameEngine(cols, rows, 0);
+        final Strategy[] strategies = new Strategy[strategyNames.length];
+
+        Worker() {
+            for (int s = 0; s < strategies.length; s++) strategies[s] = createStrategy(strategyNames[s], cols, rows);
+        }
+
+        void play(int job) {
+            int game = job / strategies.length, s = job % strategies.length;
+            long gameSeed = seed + game;
+            Tournament.play(engine, strategies[s], gameSeed, maxTicks);
+            scores[s][game] = engine.getScore();
+            levels[s][game] = engine.getLevel();
+            apples[s][game] = engine.getApplesEaten();
+            specials[s][game] = engine.getSpecialApplesEaten();
+            ticks[s][game] = engine.getTick();
+            stats[s].add(engine.getScore(), engine.getLevel(), engine.getApplesEaten(),
+                engine.getSpecialApplesEaten(), engine.getTick());
+        }
+    }
+
+    /**
+     * Method untuk memainkan satu game headless sampai game over atau batas tick, respawn seperti GamePanel
+     * @param engine Engine yang dipakai ulang (di-reset ke seed game)
+     * @param strategy Bot yang mengendalikan ular
+     * @param gameSeed Seed apel; seed yang sama menghasilkan game yang sama untuk input yang sama
+     * @param maxTicks Batas tick (bot yang tidak pernah mati tetap berhenti)
+     */
+    static void play(GameEngine engine, Strategy strategy, long gameSeed, int maxTicks) {
+        engine.getRandom().setState(gameSeed);
+        engine.reset(); // Sama dengan new GameEngine(cols, rows, gameSeed)
+        strategy.begin(engine, gameSeed);
+        while (!engine.isGameOver() && engine.getTick() < maxTicks) {
+            if (engine.isRespawnPending()) engine.respawn();
+            engine.step(strategy.decide(engine));
+            engine.getChanges().clear();
+        }
+    }
+
+    // Rentang job (game x strategi) yang dibelah dua sampai GRAIN
+    @SuppressWarnings("serial") // Tugas fork-join tidak pernah diserialisasi
+    private class Games extends RecursiveAction {
+        private final int from, to;
+
+        Games(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GRAIN) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Games(from, middle), new Games(middle, to));
+                return;
+            }
+            Worker worker = workers.get();
+            for (int job = from; job < to; job++) worker.play(job);
+        }
+    }
+
+    /**
+     * Method untuk menjalankan turnamen sampai selesai sambil mencetak statistik berkala
+     * @param threads Jumlah thread pool
+     * @param reportMillis Jarak antar laporan berjalan
+     * @return waktu total dalam nanodetik
+     */
+    public long run(int threads, long reportMillis) throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        try {
+            ForkJoinTask<Void> task = pool.submit(new Games(0, games * strategyNames.length));
+            while (true) {
+                try {
+                    task.get(reportMillis, TimeUnit.MILLISECONDS);
+                    break;
+                } catch (TimeoutException e) {
+                    printProgress(System.nanoTime() - start);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void printProgress(long elapsedNanos) {
+        long done = 0, totalTicks = 0;
+        for (Stats s : stats) {
+            done += s.games.sum();
+            totalTicks += s.ticksTotal.sum();
+        }
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf(Locale.ROOT, "[%6.1fs] %d/%d games, %.0f games/s, %.2fM ticks/s%n", seconds, done,
+            (long) games * strategyNames.length, done / seconds, totalTicks / seconds / 1e6);
+        for (int s = 0; s < stats.length; s++) {
+            Stats current = stats[s];
+            long n = current.games.sum();
+            if (n == 0) continue;
+            System.out.printf(Locale.ROOT,
+                "  %-10s n=%-6d score mean %8.1f  p50~%-6d p90~%-6d p99~%-6d level %5.2f  apples %6.1f  special %5.1f%n",
+                strategyNames[s], n, (double) current.scoreTotal.sum() / n, current.approximateScore(50),
+                current.approximateScore(90), current.approximateScore(99), (double) current.levelTotal.sum() / n,
+                (double) current.applesTotal.sum() / n, (double) current.specialTotal.sum() / n);
+        }
+    }
+
+    // Ringkasan akhir dengan persentil tepat
+    private void printSummary(long elapsedNanos, int threads) {
+        long totalTicks = 0;
+        for (Stats s : stats) totalTicks += s.ticksTotal.sum();
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf(Locale.ROOT, "%d games x %d strategies on %dx%d, %d threads: %.2f s, %.0f games/s, %.2fM ticks/s%n",
+            games, strategyNames.length, cols, rows, threads, seconds,
+            games * strategyNames.length / seconds, totalTicks / seconds / 1e6);
+        System.out.printf("%-10s %10s %8s %8s %8s %8s %7s %8s %8s %9s%n",
+            "strategy", "score", "p10", "p50", "p90", "p99", "level", "apples", "special", "ticks");
+        for (int s = 0; s < strategyNames.length; s++) {
+            int[] sorted = scores[s].clone();
+            Arrays.sort(sorted);
+            System.out.printf(Locale.ROOT, "%-10s %10.1f %8d %8d %8d %8d %7.2f %8.1f %8.1f %9.0f%n",
+                strategyNames[s], mean(scores[s]), percentile(sorted, 10), percentile(sorted, 50),
+                percentile(sorted, 90), percentile(sorted, 99), mean(levels[s]), mean(apples[s]),
+                mean(specials[s]), (double) stats[s].ticksTotal.sum() / games);
+        }
+    }
+
+    private static double mean(int[] values) {
+        long total = 0;
+        for (int value : values) total += value;
+        return values.length == 0 ? 0 : (double) total / values.length;
+    }
+
+    // Persentil nearest-rank dari array terurut
+    static int percentile(int[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    // Hasil per game sebagai CSV (satu baris per strategi per game)
+    private void writeCsv(String file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(Paths.get(file), StandardCharsets.UTF_8)) {
+            out.write("strategy,game,seed,score,level,applesEaten,specialApplesEaten,ticks\n");
+            for (int s = 0; s < strategyNames.length; s++) {
+                for (int game = 0; game < games; game++) {
+                    out.write(strategyNames[s] + "," + game + "," + (seed + game) + "," + scores[s][game] + ","
+                        + levels[s][game] + "," + apples[s][game] + "," + specials[s][game] + "," + ticks[s][game] + "\n");
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int games = 1000, maxTicks = 20_000;
+        int cols = 20, rows = 20;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 1, reportMillis = 1000;
+        String[] strategies = {"autopilot", "greedy", "random"};
+        String csv = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--games" -> games = Integer.parseInt(args[++i]);
+                case "--board" -> {
+                    String[] parts = args[++i].toLowerCase().split("x");
+                    cols = Integer.parseInt(parts[0]);
+                    rows = Integer.parseInt(parts[parts.length - 1]);
+                }
+                case "--strategies" -> strategies = args[++i].split(",");
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--max-ticks" -> maxTicks = Integer.parseInt(args[++i]);
+                case "--interval" -> reportMillis = Long.parseLong(args[++i]);
+                case "--csv" -> csv = args[++i];
+                default -> {
+                    System.err.println("Usage: Tournament [--games n] [--board CxR] [--strategies a,b]"
+                        + " [--threads n] [--seed s] [--max-ticks n] [--interval ms] [--csv file]");
+                    System.exit(2);
+                }
+            }
+        }
+
+        Tournament tournament = new Tournament(cols, rows, strategies, games, seed, maxTicks);
+        long elapsed = tournament.run(threads, reportMillis);
+        tournament.printSummary(elapsed, threads);
+        if (csv != null) tournament.writeCsv(csv);
+    }
+}
@@ -0,0 +1,72 @@
+package game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+// Satu tick arena: waktu per tick harus tumbuh sebanding jumlah ular, bukan kuadratnya
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class ArenaBenchmark {
+    // Ukuran papan / jumlah ular / jumlah apel
+    @State(Scope.Thread)
+    public static class Arena {
+        @Param({"512/10/100", "512/100/1000", "512/1000/10000", "4096/1000/10000"})
+        public String config;
+
+        ArenaEngine engine;
+
+        @Setup
+        public void setup() {
+            String[] parts = config.split("/");
+            int size = Integer.parseInt(parts[0]);
+            engine = new ArenaEngine(size, size, Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), 13);
+        }
+    }
+
+    // Tick server multipemain: step dengan pencatat delta lalu encode sekali untuk semua klien
+    @State(Scope.Thread)
+    public static class Served {
+        ArenaEngine engine;
+        ArenaDelta delta;
+        char[] inputs;
+        ByteBuffer frame;
+
+        @Setup
+        public void setup() {
+            engine = new ArenaEngine(512, 512, 1000, 10000, 13);
+            delta = new ArenaDelta(engine.getSnakeCount());
+            engine.setDelta(delta);
+            inputs = new char[engine.getSnakeCount()];
+            frame = ByteBuffer.allocateDirect(64 * 1024);
+        }
+    }
+
+    @Benchmark
+    public int arenaTick(Arena arena) {
+        return arena.engine.step((char) 0);
+    }
+
+    @Benchmark
+    public int arenaDeltaTick(Served served) {
+        served.engine.step(served.inputs);
+        served.frame.clear();
+        served.delta.encode(served.frame, served.engine.getTick(), 0);
+        served.delta.clear();
+        return served.frame.position();
+    }
+}
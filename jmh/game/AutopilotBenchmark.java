@@ -0,0 +1,94 @@
+package game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Keputusan autopilot: dibatasi budget sel per tick, jadi papan besar tidak boleh jauh lebih lambat
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class AutopilotBenchmark {
+    // Autopilot memainkan game 20x20 sampai game over, lalu reset
+    @State(Scope.Thread)
+    public static class Playing {
+        GameEngine engine;
+        Autopilot pilot;
+
+        @Setup
+        public void setup() {
+            engine = new GameEngine(20, 20, 37);
+            pilot = new Autopilot(20, 20, Autopilot.DEFAULT_BUDGET);
+        }
+    }
+
+    // Ular panjang di papan kecil (pencarian ekor dan ruang kosong paling sering terpakai)
+    @State(Scope.Thread)
+    public static class Crowded {
+        GameEngine engine;
+        Autopilot pilot;
+        double[] weights;
+
+        @Setup
+        public void setup() {
+            engine = new GameEngine(20, 20, 41);
+            char[] route = CycleRoute.directions(20, 20);
+            while (engine.getBody().length() < 200) CycleRoute.play(engine, route, 1);
+            pilot = new Autopilot(20, 20, Autopilot.DEFAULT_BUDGET);
+            weights = GeneticTuner.DEFAULT_WEIGHTS.clone();
+        }
+    }
+
+    // Papan besar: apel biasanya di luar jangkauan budget, jadi pencarian selalu memakai budget penuh
+    @State(Scope.Thread)
+    public static class LargeBoard {
+        @Param({"512", "4096"})
+        public int board;
+
+        GameEngine engine;
+        Autopilot pilot;
+
+        @Setup
+        public void setup() {
+            engine = new GameEngine(board, board, 43);
+            pilot = new Autopilot(board, board, Autopilot.DEFAULT_BUDGET);
+        }
+    }
+
+    @Benchmark
+    public int autopilotTick(Playing game) {
+        GameEngine engine = game.engine;
+        if (engine.isRespawnPending()) engine.respawn();
+        int events = engine.step(game.pilot.decide(engine));
+        engine.getChanges().clear();
+        if ((events & GameEngine.EVENT_GAME_OVER) != 0) engine.reset();
+        return events;
+    }
+
+    @Benchmark
+    public char autopilotDecide(Crowded game) {
+        return game.pilot.decide(game.engine);
+    }
+
+    @Benchmark
+    public char autopilotWeighted(Crowded game) {
+        return game.pilot.decide(game.engine, game.weights);
+    }
+
+    @Benchmark
+    public char autopilotDecideLarge(LargeBoard game) {
+        return game.pilot.decide(game.engine);
+    }
+}
@@ -0,0 +1,47 @@
+package game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Satu step seluruh batch di satu thread (bagi dengan jumlah game untuk waktu per env-step)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchEnvBenchmark {
+    @Param({"256", "4096"})
+    public int games;
+
+    private BatchEnv env;
+    private int[][] actions;
+    private int round;
+
+    @Setup
+    public void setup() {
+        env = new BatchEnv(games, 20, 20, 47, 10_000, 1);
+        actions = new int[16][games];
+        GameRandom random = new GameRandom(53);
+        for (int[] batch : actions) {
+            for (int g = 0; g < games; g++) batch[g] = random.nextInt(8) < 4 ? random.nextInt(4) : BatchEnv.NO_ACTION;
+        }
+    }
+
+    @Benchmark
+    public int batchEnvStep() {
+        env.step(actions[round++ & 15]);
+        return env.getScore(0);
+    }
+}
@@ -0,0 +1,69 @@
+package game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.SwingUtilities;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * paintComponent ke BufferedImage offscreen untuk tiap tema.
+ * Render harus di EDT (timer game juga di EDT, jadi tidak jalan bersamaan); supaya biaya pindah thread
+ * tidak ikut terukur, satu invocation menggambar FRAMES frame sekaligus di EDT.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true") // Offscreen, tidak perlu layar
+@State(Scope.Thread)
+public class RenderBenchmark {
+    private static final int FRAMES = 100;
+
+    @Param({"default", "dark", "nature"})
+    public String theme;
+
+    private GamePanel panel;
+    private BufferedImage image;
+    private int pixel;
+    private Runnable frames;
+
+    @Setup
+    public void setup() throws Exception {
+        int themeId = theme.equals("dark") ? 2 : theme.equals("nature") ? 3 : 1;
+        image = new BufferedImage(600, 650, BufferedImage.TYPE_INT_RGB);
+        SwingUtilities.invokeAndWait(() -> {
+            panel = new GamePanel();
+            panel.setSize(600, 650);
+            panel.changeTheme(themeId);
+            panel.startGame();
+        });
+        frames = () -> {
+            for (int i = 0; i < FRAMES; i++) {
+                Graphics2D g2d = image.createGraphics();
+                panel.paintComponent(g2d);
+                g2d.dispose();
+            }
+            pixel = image.getRGB(300, 300);
+        };
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public int render() throws Exception {
+        SwingUtilities.invokeAndWait(frames);
+        return pixel;
+    }
+}
@@ -0,0 +1,51 @@
+package game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Verifikasi replay 1 jam (72000 tick pada kecepatan maksimal 50ms) dari seed, harus jauh di bawah 1 detik
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class ReplayBenchmark {
+    private Replay replay;
+    private GameEngine engine;
+    private GameRandom target;
+
+    @Setup
+    public void setup() throws IOException {
+        GameEngine recorded = new GameEngine(20, 20, 17);
+        recorded.setRecorder(new ReplayRecorder());
+        recorded.reset();
+        CycleRoute.play(recorded, CycleRoute.directions(20, 20), 3600_000 / GameEngine.MIN_DELAY);
+        replay = new Replay(recorded.getRecorder().encode(recorded));
+        engine = replay.createEngine();
+        if (replay.verify(engine) != -1) throw new IllegalStateException("Replay does not match recording");
+        target = new GameRandom(19);
+    }
+
+    @Benchmark
+    public long replayVerify() {
+        return replay.verify(engine);
+    }
+
+    @Benchmark
+    public int replaySeek() {
+        replay.seek(engine, target.nextInt((int) replay.getFinalTick()));
+        return engine.getScore();
+    }
+}
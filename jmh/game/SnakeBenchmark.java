@@ -0,0 +1,48 @@
+package game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Gerak satu sel lalu cek tabrakan (jalur Snake.move + isColliding), untuk berbagai panjang tubuh
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class SnakeBenchmark {
+    @Param({"1", "10", "50", "100", "200", "400"})
+    public int length;
+
+    private int[] path;
+    private SnakeBody body;
+    private int position;
+
+    @Setup
+    public void setup() {
+        path = CycleRoute.path(20, 20);
+        body = new SnakeBody(20, 20, 400);
+        for (int i = length - 1; i >= 0; i--) body.addHead(SnakeBody.cellX(path[i]), SnakeBody.cellY(path[i]));
+        position = length - 1;
+    }
+
+    @Benchmark
+    public int moveCollide() {
+        position = (position + 1) % path.length;
+        int next = path[position];
+        body.addHead(SnakeBody.cellX(next), SnakeBody.cellY(next));
+        body.removeTail();
+        return body.isHeadColliding() ? 1 : next;
+    }
+}
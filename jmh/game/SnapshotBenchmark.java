@@ -0,0 +1,66 @@
+package game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Simpan snapshot game dengan ular memenuhi papan 20x20: salin state, lalu tulis file + rename atomik
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class SnapshotBenchmark {
+    private GameEngine engine;
+    private Path directory;
+    private Path file;
+
+    @Setup
+    public void setup() throws IOException {
+        engine = new GameEngine(20, 20, 31);
+        char[] route = CycleRoute.directions(20, 20);
+        while (engine.getBody().length() < 20 * 20 - 1) CycleRoute.play(engine, route, 1);
+        directory = Files.createTempDirectory("snake-bench");
+        file = directory.resolve("savegame.bin");
+        SaveGame.write(SaveGame.encode(engine, 0), file);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public int snapshotEncode() {
+        return SaveGame.encode(engine, 0).limit();
+    }
+
+    @Benchmark
+    public void snapshotSave() throws IOException {
+        SaveGame.write(SaveGame.encode(engine, 0), file);
+    }
+
+    @Benchmark
+    public int snapshotLoad() {
+        ByteBuffer state = SaveGame.read(file, 20, 20);
+        state.getInt(); // Flag
+        engine.readState(state);
+        return engine.getScore();
+    }
+}
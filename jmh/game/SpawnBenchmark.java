@@ -0,0 +1,83 @@
+package game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Spawn apel (memilih sel dan jenis apel baru) dan pengambilan sel kosong acak
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class SpawnBenchmark {
+    @State(Scope.Thread)
+    public static class Board {
+        GameEngine engine;
+
+        @Setup
+        public void setup() {
+            engine = new GameEngine(20, 20, 1);
+        }
+    }
+
+    // Papan besar dengan ular 1000 segmen
+    @State(Scope.Thread)
+    public static class LargeBoard {
+        GameEngine engine;
+
+        @Setup
+        public void setup() {
+            engine = new GameEngine(4096, 4096, 5);
+            for (int i = 0; i < 1000; i++) engine.getBody().addHead(100 + i, 100);
+        }
+    }
+
+    // Arena 100x100 yang terisi fill persen (waktu sampling harus tetap konstan)
+    @State(Scope.Thread)
+    public static class FilledBoard {
+        @Param({"0", "50", "90", "99"})
+        public int fill;
+
+        CellOccupancy occupancy;
+        GameRandom random;
+
+        @Setup
+        public void setup() {
+            int[] path = CycleRoute.path(100, 100);
+            SnakeBody body = new SnakeBody(100, 100, path.length);
+            for (int i = 0; i < path.length * fill / 100; i++) {
+                body.addHead(SnakeBody.cellX(path[i]), SnakeBody.cellY(path[i]));
+            }
+            occupancy = body.getOccupancy();
+            random = new GameRandom(3);
+        }
+    }
+
+    @Benchmark
+    public int appleSpawn(Board board) {
+        board.engine.spawnApple();
+        return board.engine.getAppleX() + board.engine.getAppleY();
+    }
+
+    @Benchmark
+    public int appleSpawnLarge(LargeBoard board) {
+        board.engine.spawnApple();
+        return board.engine.getAppleX() + board.engine.getAppleY();
+    }
+
+    @Benchmark
+    public int freeCellSample(FilledBoard board) {
+        return board.occupancy.randomFreeCell(board.random);
+    }
+}
@@ -0,0 +1,96 @@
+package game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Satu tick penuh GameEngine, dengan dan tanpa buffer rewind
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class TickBenchmark {
+    private static final char[] DIRECTIONS = {'U', 'D', 'L', 'R'};
+
+    // Input acak, game di-reset saat game over
+    // Ukuran papan besar tidak boleh membuat tick lebih lambat (okupansi hash + rejection sampling)
+    @State(Scope.Thread)
+    public static class RandomGame {
+        @Param({"20", "512", "4096"})
+        public int board;
+
+        GameEngine engine;
+        GameRandom input;
+
+        @Setup
+        public void setup() {
+            engine = new GameEngine(board, board, 7);
+            input = new GameRandom(11);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class RewindGame {
+        GameEngine engine;
+        char[] route;
+
+        @Setup
+        public void setup() {
+            route = CycleRoute.directions(20, 20);
+            engine = new GameEngine(20, 20, 23);
+            engine.setRewindBuffer(new RewindBuffer());
+        }
+    }
+
+    // Ular panjang dengan buffer rewind penuh (biaya mundur sebanding jumlah tick, bukan panjang ular)
+    @State(Scope.Thread)
+    public static class LongRewind {
+        @Param({"1", "600"})
+        public int ticks;
+
+        GameEngine engine;
+        char[] route;
+
+        @Setup
+        public void setup() {
+            route = CycleRoute.directions(20, 20);
+            engine = new GameEngine(20, 20, 29);
+            engine.setRewindBuffer(new RewindBuffer());
+            CycleRoute.play(engine, route, 20_000);
+        }
+    }
+
+    @Benchmark
+    public int gameTick(RandomGame game) {
+        GameEngine engine = game.engine;
+        int events = engine.step(DIRECTIONS[game.input.nextInt(4)]);
+        engine.getChanges().clear();
+        if ((events & GameEngine.EVENT_GAME_OVER) != 0) engine.reset();
+        return events;
+    }
+
+    @Benchmark
+    public int gameTickRewind(RewindGame game) {
+        if (game.engine.isGameOver()) game.engine.reset();
+        CycleRoute.play(game.engine, game.route, 1);
+        return game.engine.getScore();
+    }
+
+    @Benchmark
+    public int rewind(LongRewind game) {
+        int rewound = game.engine.rewind(game.ticks);
+        CycleRoute.play(game.engine, game.route, rewound); // Isi buffer lagi untuk operasi berikutnya
+        return rewound;
+    }
+}